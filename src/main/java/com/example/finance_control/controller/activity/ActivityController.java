@@ -2,21 +2,41 @@ package com.example.finance_control.controller.activity;
 
 import com.example.finance_control.domain.activity.Activity;
 import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.export.ExportFormat;
+import com.example.finance_control.domain.export.ExportJob;
 import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.dto.ActivityBatchResultDTO;
+import com.example.finance_control.dto.ActivityImportResultDTO;
+import com.example.finance_control.dto.ActivityPageDTO;
 import com.example.finance_control.dto.ActivityRequestDTO;
 import com.example.finance_control.dto.ActivityResponseDTO;
 import com.example.finance_control.dto.CategoryReportDTO;
+import com.example.finance_control.dto.ExportJobDTO;
+import com.example.finance_control.repository.activity.ActivityFilter;
 import com.example.finance_control.service.ActivityService;
+import com.example.finance_control.service.ExportJobService;
 import com.example.finance_control.service.ExportService;
+import com.example.finance_control.utils.Money;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -31,12 +51,37 @@ public class ActivityController {
     @Autowired
     private ExportService exportService;
 
+    @Autowired
+    private ExportJobService exportJobService;
+
     @PostMapping
     public ResponseEntity<ActivityResponseDTO> createActivity(@RequestBody @Valid ActivityRequestDTO activityRequestDTO) {
         ActivityResponseDTO response = activityService.insertActivity(activityRequestDTO);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    // Inserção em lote (sincronização bancária, migrações): retorna o resultado de cada item
+    @PostMapping("/batch")
+    public ResponseEntity<ActivityBatchResultDTO> createActivities(@RequestBody List<ActivityRequestDTO> activities) {
+        ActivityBatchResultDTO response = activityService.insertActivities(activities);
+        HttpStatus status = response.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(response, status);
+    }
+
+    // Importação de extrato CSV (layout da exportação ou de bancos), lido direto do corpo da requisição
+    @PostMapping(value = "/import/csv",
+            consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ActivityImportResultDTO> importCsv(@RequestParam String userId,
+                                                             HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() != null
+                ? Charset.forName(request.getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        ActivityImportResultDTO response = activityService.importActivities(
+                userId, new InputStreamReader(request.getInputStream(), charset));
+        HttpStatus status = response.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(response, status);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ActivityResponseDTO> updateActivity(
             @PathVariable String id,
@@ -55,17 +100,19 @@ public class ActivityController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ActivityResponseDTO>> listActivities(@RequestParam @Pattern(
+    public ResponseEntity<ActivityPageDTO> listActivities(@RequestParam @Pattern(
             regexp = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$",
             message = "ID do usuário deve ser um UUID válido"
-    ) String userId) {
-        List<ActivityResponseDTO> activities = activityService.listActivities(userId);
+    ) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") Integer limit) {
+        ActivityPageDTO activities = activityService.listActivities(userId, cursor, limit);
         return ResponseEntity.ok().body(activities);
     }
 
     @GetMapping("/balance")
-    public ResponseEntity<Double> calculateBalance(@RequestParam String userId) {
-        Double balance = activityService.calculateBalance(userId);
+    public ResponseEntity<BigDecimal> calculateBalance(@RequestParam String userId) {
+        BigDecimal balance = activityService.calculateBalance(userId);
         return ResponseEntity.ok().body(balance);
     }
 
@@ -79,53 +126,135 @@ public class ActivityController {
         exportService.writeActivitiesToPdf(userId, response);
     }
 
+    // Exportação síncrona em qualquer formato (CSV, CSV_GZ, PDF, XLSX)
+    @GetMapping("/export")
+    public void export(@RequestParam String userId,
+                       @RequestParam(defaultValue = "CSV") ExportFormat format,
+                       HttpServletResponse response) throws Exception {
+        exportService.writeActivities(userId, format, response);
+    }
+
+    // Exportação em segundo plano: retorna o job; o arquivo é baixado depois pelo downloadUrl
+    @PostMapping("/exports")
+    public ResponseEntity<ExportJobDTO> createExport(@RequestParam String userId,
+                                                     @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        ExportJobDTO job = ExportJobDTO.of(exportJobService.submit(userId, format));
+        return ResponseEntity.accepted()
+                .location(URI.create("/activities/exports/" + job.id() + "?userId=" + userId))
+                .body(job);
+    }
+
+    @GetMapping("/exports/{id}")
+    public ResponseEntity<ExportJobDTO> getExport(@PathVariable String id, @RequestParam String userId) {
+        return ResponseEntity.ok(ExportJobDTO.of(exportJobService.getJob(id, userId)));
+    }
+
+    // Resource de arquivo: o Spring responde a requisições Range (206) a partir do disco
+    @GetMapping("/exports/{id}/file")
+    public ResponseEntity<Resource> downloadExport(@PathVariable String id, @RequestParam String userId) {
+        ExportJob job = exportJobService.getCompletedJob(id, userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.fileName())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(new FileSystemResource(job.getFile()));
+    }
+
+    // Filtro combinável: todos os parâmetros são opcionais, exceto userId
+    @GetMapping("/filter")
+    public ResponseEntity<ActivityPageDTO> searchActivities(
+            @RequestParam String userId,
+            @RequestParam(required = false) List<Type> types,
+            @RequestParam(required = false) List<Category> categories,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) BigDecimal minValue,
+            @RequestParam(required = false) BigDecimal maxValue,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") Integer limit
+    ) {
+        ActivityFilter filter = filterOf(userId, types, categories, startDate, endDate, minValue, maxValue, description);
+        ActivityPageDTO activities = activityService.searchActivities(filter, cursor, limit);
+        return ResponseEntity.ok(activities);
+    }
+
+    // Mesmo filtro de /filter, sem paginação: o array JSON é escrito conforme as linhas são lidas
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamActivities(
+            @RequestParam String userId,
+            @RequestParam(required = false) List<Type> types,
+            @RequestParam(required = false) List<Category> categories,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) BigDecimal minValue,
+            @RequestParam(required = false) BigDecimal maxValue,
+            @RequestParam(required = false) String description
+    ) {
+        ActivityFilter filter = filterOf(userId, types, categories, startDate, endDate, minValue, maxValue, description);
+        StreamingResponseBody body = activityService.streamActivities(filter);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @GetMapping("/filter/type")
-    public ResponseEntity<List<ActivityResponseDTO>> getActivitiesByType(
+    public ResponseEntity<ActivityPageDTO> getActivitiesByType(
             @RequestParam String userId,
-            @RequestParam Type type
+            @RequestParam Type type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") Integer limit
     ) {
-        List<ActivityResponseDTO> activities = activityService.getActivitiesByType(userId, type);
+        ActivityPageDTO activities = activityService.getActivitiesByType(userId, type, cursor, limit);
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/filter/category")
-    public ResponseEntity<List<ActivityResponseDTO>> getActivitiesByCategory(
+    public ResponseEntity<ActivityPageDTO> getActivitiesByCategory(
             @RequestParam String userId,
-            @RequestParam Category category
+            @RequestParam Category category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") Integer limit
     ) {
-        List<ActivityResponseDTO> activities = activityService.getActivitiesByCategory(userId, category);
+        ActivityPageDTO activities = activityService.getActivitiesByCategory(userId, category, cursor, limit);
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/filter/category-type")
-    public ResponseEntity<List<ActivityResponseDTO>> getActivitiesByCategoryAndType(
+    public ResponseEntity<ActivityPageDTO> getActivitiesByCategoryAndType(
             @RequestParam String userId,
             @RequestParam Category category,
-            @RequestParam Type type
+            @RequestParam Type type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") Integer limit
     ) {
-        List<ActivityResponseDTO> activities = activityService.getActivitiesByCategoryAndType(userId, category, type);
+        ActivityPageDTO activities = activityService.getActivitiesByCategoryAndType(userId, category, type, cursor, limit);
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/filter/date-range")
-    public ResponseEntity<List<ActivityResponseDTO>> getActivitiesByDateRange(
+    public ResponseEntity<ActivityPageDTO> getActivitiesByDateRange(
             @RequestParam String userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") Integer limit
     ) {
-        List<ActivityResponseDTO> activities = activityService.getActivitiesByDateRange(userId, startDate, endDate);
+        ActivityPageDTO activities = activityService.getActivitiesByDateRange(userId, startDate, endDate, cursor, limit);
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/filter/category-date")
-    public ResponseEntity<List<ActivityResponseDTO>> getActivitiesByCategoryAndDateRange(
+    public ResponseEntity<ActivityPageDTO> getActivitiesByCategoryAndDateRange(
             @RequestParam String userId,
             @RequestParam Category category,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") Integer limit
     ) {
-        List<ActivityResponseDTO> activities = activityService.getActivitiesByCategoryAndDateRange(
-                userId, category, startDate, endDate);
+        ActivityPageDTO activities = activityService.getActivitiesByCategoryAndDateRange(
+                userId, category, startDate, endDate, cursor, limit);
         return ResponseEntity.ok(activities);
     }
 
@@ -139,11 +268,25 @@ public class ActivityController {
     }
 
     @GetMapping("/reports/balance-by-category")
-    public ResponseEntity<Map<Category, Double>> getBalanceByCategory(
+    public ResponseEntity<Map<Category, BigDecimal>> getBalanceByCategory(
             @RequestParam String userId
     ) {
-        Map<Category, Double> balance = activityService.getBalanceByCategory(userId);
+        Map<Category, BigDecimal> balance = activityService.getBalanceByCategory(userId);
         return ResponseEntity.ok(balance);
     }
 
+    private static ActivityFilter filterOf(String userId, List<Type> types, List<Category> categories,
+                                           Instant startDate, Instant endDate,
+                                           BigDecimal minValue, BigDecimal maxValue, String description) {
+        return ActivityFilter.builder()
+                .userId(userId)
+                .types(types)
+                .categories(categories)
+                .startDate(startDate)
+                .endDate(endDate)
+                .minCents(minValue != null ? Money.toCents(minValue) : null)
+                .maxCents(maxValue != null ? Money.toCents(maxValue) : null)
+                .description(description)
+                .build();
+    }
 }
@@ -11,6 +11,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 
 @RestController
@@ -28,7 +29,9 @@ public class DashboardController {
      * @param period Período predefinido (opcional): LAST_7_DAYS, LAST_30_DAYS, CURRENT_MONTH, LAST_MONTH, CURRENT_YEAR
      * @param startDate Data inicial personalizada (opcional, usado quando period = CUSTOM)
      * @param endDate Data final personalizada (opcional, usado quando period = CUSTOM)
-     * @return Dados completos do dashboard
+     * @param fields Seções desejadas, separadas por vírgula (opcional, padrão: todas).
+     *               Ex.: fields=financialSummary,quickStats
+     * @return Dados completos do dashboard (ou apenas as seções solicitadas)
      */
     @GetMapping
     public ResponseEntity<DashboardResponseDTO> getDashboard(
@@ -43,9 +46,11 @@ public class DashboardController {
             @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate startDate,
 
             @RequestParam(required = false)
-            @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate endDate) {
+            @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate endDate,
+
+            @RequestParam(required = false) List<String> fields) {
 
-        log.info("Dashboard request for user: {}, period: {}", userId, period);
+        log.info("Dashboard request for user: {}, period: {}, fields: {}", userId, period, fields);
 
         DashboardFilterDTO filter = DashboardFilterDTO.builder()
                 .userId(userId)
@@ -54,7 +59,7 @@ public class DashboardController {
                 .endDate(endDate)
                 .build();
 
-        DashboardResponseDTO dashboard = dashboardService.getDashboardData(filter);
+        DashboardResponseDTO dashboard = dashboardService.getDashboardData(filter, DashboardSection.parse(fields));
         return ResponseEntity.ok(dashboard);
     }
 
@@ -74,12 +79,51 @@ public class DashboardController {
         return ResponseEntity.ok(dashboard);
     }
 
+    /**
+     * Endpoint de comparação entre o período atual e o período equivalente anterior
+     * (mês atual x mês passado, ano atual x ano passado, intervalo personalizado x intervalo
+     * de mesma duração imediatamente anterior)
+     *
+     * @param userId ID do usuário (obrigatório)
+     * @param period Período predefinido (opcional): LAST_7_DAYS, LAST_30_DAYS, CURRENT_MONTH, LAST_MONTH, CURRENT_YEAR
+     * @param startDate Data inicial personalizada (opcional)
+     * @param endDate Data final personalizada (opcional)
+     * @return Totais dos dois períodos com as variações por tipo e por categoria
+     */
+    @GetMapping("/compare")
+    public ResponseEntity<PeriodComparisonDTO> comparePeriods(
+            @RequestParam @Pattern(
+                    regexp = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$",
+                    message = "ID do usuário deve ser um UUID válido"
+            ) String userId,
+
+            @RequestParam(required = false, defaultValue = "CURRENT_MONTH") String period,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate startDate,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate endDate) {
+
+        log.info("Period comparison request for user: {}, period: {}", userId, period);
+
+        DashboardFilterDTO filter = DashboardFilterDTO.builder()
+                .userId(userId)
+                .period(period)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        return ResponseEntity.ok(dashboardService.comparePeriods(filter));
+    }
+
     /**
      * Endpoint para resumo detalhado de uma categoria específica
      *
      * @param userId ID do usuário
      * @param category Categoria a ser analisada
      * @param period Período de análise (opcional, padrão: CURRENT_MONTH)
+     * @param limit Quantidade de transações recentes (opcional, padrão: 5, máximo: 50)
      * @return Resumo detalhado da categoria
      */
     @GetMapping("/category/{category}")
@@ -91,12 +135,14 @@ public class DashboardController {
 
             @PathVariable Category category,
 
-            @RequestParam(required = false, defaultValue = "CURRENT_MONTH") String period) {
+            @RequestParam(required = false, defaultValue = "CURRENT_MONTH") String period,
 
-        log.info("Category summary request - User: {}, Category: {}, Period: {}",
-                userId, category, period);
+            @RequestParam(required = false, defaultValue = "5") Integer limit) {
 
-        CategorySummaryDTO summary = dashboardService.getCategorySummary(userId, category, period);
+        log.info("Category summary request - User: {}, Category: {}, Period: {}, Limit: {}",
+                userId, category, period, limit);
+
+        CategorySummaryDTO summary = dashboardService.getCategorySummary(userId, category, period, limit);
         return ResponseEntity.ok(summary);
     }
 
@@ -124,7 +170,8 @@ public class DashboardController {
                 .period(period)
                 .build();
 
-        DashboardResponseDTO dashboard = dashboardService.getDashboardData(filter);
+        DashboardResponseDTO dashboard = dashboardService.getDashboardData(
+                filter, EnumSet.of(DashboardSection.FINANCIAL_SUMMARY));
         return ResponseEntity.ok(dashboard.getFinancialSummary());
     }
 
@@ -151,7 +198,8 @@ public class DashboardController {
                 .period(period)
                 .build();
 
-        DashboardResponseDTO dashboard = dashboardService.getDashboardData(filter);
+        DashboardResponseDTO dashboard = dashboardService.getDashboardData(
+                filter, EnumSet.of(DashboardSection.QUICK_STATS));
         return ResponseEntity.ok(dashboard.getQuickStats());
     }
 
@@ -184,7 +232,8 @@ public class DashboardController {
                 .endDate(endDate)
                 .build();
 
-        DashboardResponseDTO dashboard = dashboardService.getDashboardData(filter);
+        DashboardResponseDTO dashboard = dashboardService.getDashboardData(
+                filter, EnumSet.of(DashboardSection.MONTHLY_EVOLUTION));
         return ResponseEntity.ok(dashboard.getMonthlyEvolution());
     }
 
@@ -215,11 +264,13 @@ public class DashboardController {
                 .period(period)
                 .build();
 
-        DashboardResponseDTO dashboard = dashboardService.getDashboardData(filter);
-
         if ("EXPENSE".equalsIgnoreCase(type)) {
+            DashboardResponseDTO dashboard = dashboardService.getDashboardData(
+                    filter, EnumSet.of(DashboardSection.EXPENSES_BY_CATEGORY));
             return ResponseEntity.ok(dashboard.getExpensesByCategory());
         } else if ("REVENUE".equalsIgnoreCase(type)) {
+            DashboardResponseDTO dashboard = dashboardService.getDashboardData(
+                    filter, EnumSet.of(DashboardSection.REVENUES_BY_CATEGORY));
             return ResponseEntity.ok(dashboard.getRevenuesByCategory());
         } else {
             return ResponseEntity.badRequest().build();
@@ -13,10 +13,17 @@ import lombok.ToString;
 import java.time.Instant;
 
 @Entity(name = "Activity")
-@Table(name = "activities")
+// Índices criados pelas migrações Flyway (V2); declarados aqui para documentar os caminhos de acesso
+@Table(name = "activities", indexes = {
+        // Listagem e paginação por keyset: user_id + (date DESC, id DESC)
+        @Index(name = "idx_activities_user_date", columnList = "user_id, date DESC, id DESC"),
+        // Filtros por tipo e por categoria, já na ordem da paginação
+        @Index(name = "idx_activities_user_type_date", columnList = "user_id, type, date DESC, id DESC"),
+        @Index(name = "idx_activities_user_category_date", columnList = "user_id, category, date DESC, id DESC")
+})
 @Getter
 @Setter
-@ToString
+@ToString(exclude = "user")
 @NoArgsConstructor
 public class Activity {
 
@@ -31,8 +38,9 @@ public class Activity {
     @Column(name = "description", nullable = false)
     private String description;
 
-    @Column(name = "value", nullable = false)
-    private Double value;
+    // Valor em centavos
+    @Column(name = "value_cents", nullable = false)
+    private long valueCents;
 
     @Column(name = "type", nullable = false)
     @Enumerated(EnumType.STRING)
@@ -42,50 +50,50 @@ public class Activity {
     @Enumerated(EnumType.STRING)
     private Category category;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
 
-    private Activity(String id, Instant date, String description, Double value, Type type,Category category, User user) {
+    private Activity(String id, Instant date, String description, long valueCents, Type type,Category category, User user) {
         this.id = id;
         this.date = date;
         this.description = description;
-        this.value = value;
+        this.valueCents = valueCents;
         this.type = type;
         this.category = category;
         this.user = user;
 
     }
 
-    public static Activity create(String id, Instant date, String description, Double value,
+    public static Activity create(String id, Instant date, String description, long valueCents,
                                   Type type,Category category, User user) {
-        validate(description, value, type, category);
-        return new Activity(id, date, description, value, type, category, user);
+        validate(description, valueCents, type, category);
+        return new Activity(id, date, description, valueCents, type, category, user);
 
     }
 
     public static Activity with(String id, Instant date, String description,
-                                Double value, Type type, Category category, User user) {
+                                long valueCents, Type type, Category category, User user) {
 
         return new Activity(
                 id,
                 date,
                 description,
-                value,
+                valueCents,
                 type,
                 category,
                 user);
     }
 
-    private  static void validate(String description, Double value, Type type, Category category) {
+    private  static void validate(String description, long valueCents, Type type, Category category) {
        if (description == null || description.isBlank()) {
             throw new DomainException("Activity's description should not be blank.");
         } else if (description.length() < 3) {
             throw new DomainException("Activity's description should have at least 3 characters.");
         } else if (type != Type.EXPENSE && type != Type.REVENUE) {
             throw new DomainException("Activity's type should be either expense or revenue.");
-        } else if (value == null || value < 0.01) {
+        } else if (valueCents < 1) {
             throw new DomainException("Activity's value should be greater than zero.");
         } else if (category == null) {
            throw new DomainException("Activity's category is required.");
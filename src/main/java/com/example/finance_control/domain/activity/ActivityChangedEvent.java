@@ -0,0 +1,33 @@
+package com.example.finance_control.domain.activity;
+
+import java.util.List;
+
+/**
+ * Publicado pelo ActivityService a cada inserção, alteração ou remoção de atividades do usuário.
+ * Carrega o estado removido e o adicionado para que índices em memória apliquem apenas a diferença
+ * (um update gera um removido e um adicionado). Em cargas grandes (importação) o evento é
+ * publicado com bulk = true e sem as listas: quem mantém estado derivado deve descartá-lo.
+ */
+public record ActivityChangedEvent(String userId, List<ActivitySnapshot> removed, List<ActivitySnapshot> added,
+                                   boolean bulk) {
+
+    public ActivityChangedEvent(String userId, List<ActivitySnapshot> removed, List<ActivitySnapshot> added) {
+        this(userId, removed, added, false);
+    }
+
+    public static ActivityChangedEvent bulk(String userId) {
+        return new ActivityChangedEvent(userId, List.of(), List.of(), true);
+    }
+
+    public static ActivityChangedEvent inserted(ActivitySnapshot added) {
+        return new ActivityChangedEvent(added.userId(), List.of(), List.of(added));
+    }
+
+    public static ActivityChangedEvent removed(ActivitySnapshot removed) {
+        return new ActivityChangedEvent(removed.userId(), List.of(removed), List.of());
+    }
+
+    public static ActivityChangedEvent updated(ActivitySnapshot before, ActivitySnapshot after) {
+        return new ActivityChangedEvent(after.userId(), List.of(before), List.of(after));
+    }
+}
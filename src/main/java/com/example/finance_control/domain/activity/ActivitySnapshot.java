@@ -0,0 +1,25 @@
+package com.example.finance_control.domain.activity;
+
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+
+import java.time.Instant;
+
+// Cópia imutável dos campos agregáveis de uma atividade (ex.: estado anterior a um update)
+public record ActivitySnapshot(
+        String userId,
+        Instant date,
+        Type type,
+        Category category,
+        long valueCents
+) {
+    public static ActivitySnapshot of(Activity activity) {
+        return new ActivitySnapshot(
+                activity.getUser() != null ? activity.getUser().getId() : null,
+                activity.getDate(),
+                activity.getType(),
+                activity.getCategory(),
+                activity.getValueCents()
+        );
+    }
+}
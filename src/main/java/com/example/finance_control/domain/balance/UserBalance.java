@@ -0,0 +1,45 @@
+package com.example.finance_control.domain.balance;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Saldo corrente do usuário (totais de receitas e despesas e quantidade de transações),
+ * mantido pelo ActivityService na mesma transação das alterações em activities.
+ */
+@Entity(name = "UserBalance")
+@Table(name = "user_balances")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class UserBalance {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    // Valores em centavos
+    @Column(name = "total_revenue_cents", nullable = false)
+    private long totalRevenueCents;
+
+    @Column(name = "total_expense_cents", nullable = false)
+    private long totalExpenseCents;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    public UserBalance(String userId, long totalRevenueCents, long totalExpenseCents, Long transactionCount) {
+        this.userId = userId;
+        this.totalRevenueCents = totalRevenueCents;
+        this.totalExpenseCents = totalExpenseCents;
+        this.transactionCount = transactionCount;
+    }
+
+    public long getBalanceCents() {
+        return totalRevenueCents - totalExpenseCents;
+    }
+}
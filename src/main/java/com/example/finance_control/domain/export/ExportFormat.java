@@ -0,0 +1,24 @@
+package com.example.finance_control.domain.export;
+
+public enum ExportFormat {
+    CSV("csv", "text/csv;charset=UTF-8"),
+    CSV_GZ("csv.gz", "application/gzip"),
+    PDF("pdf", "application/pdf"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.finance_control.domain.export;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Job de exportação mantido em memória pelo ExportJobService. O arquivo gerado fica em disco até
+ * expiresAt; os campos mutáveis são voláteis porque o job é lido pelas requisições de status
+ * enquanto a thread de exportação o atualiza.
+ */
+@Getter
+public class ExportJob {
+
+    private final String id;
+    private final String userId;
+    private final ExportFormat format;
+    private final Instant createdAt;
+    private volatile ExportJobStatus status = ExportJobStatus.PENDING;
+    private volatile Instant finishedAt;
+    private volatile Instant expiresAt;
+    private volatile Path file;
+    private volatile long sizeBytes;
+    private volatile String error;
+
+    public ExportJob(String id, String userId, ExportFormat format, Instant createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.format = format;
+        this.createdAt = createdAt;
+    }
+
+    public void running() {
+        this.status = ExportJobStatus.RUNNING;
+    }
+
+    public void completed(Path file, long sizeBytes, Instant finishedAt, Instant expiresAt) {
+        this.file = file;
+        this.sizeBytes = sizeBytes;
+        this.finishedAt = finishedAt;
+        this.expiresAt = expiresAt;
+        this.status = ExportJobStatus.COMPLETED;
+    }
+
+    public void failed(String error, Instant finishedAt, Instant expiresAt) {
+        this.error = error;
+        this.finishedAt = finishedAt;
+        this.expiresAt = expiresAt;
+        this.status = ExportJobStatus.FAILED;
+    }
+
+    public String fileName() {
+        return "activities-" + id + "." + format.getExtension();
+    }
+}
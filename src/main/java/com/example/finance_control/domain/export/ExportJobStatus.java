@@ -0,0 +1,12 @@
+package com.example.finance_control.domain.export;
+
+public enum ExportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isActive() {
+        return this == PENDING || this == RUNNING;
+    }
+}
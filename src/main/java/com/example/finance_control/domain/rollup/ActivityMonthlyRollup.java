@@ -0,0 +1,53 @@
+package com.example.finance_control.domain.rollup;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Totais mensais por (usuário, mês, categoria, tipo), mantidos pelo ActivityService
+ * na mesma transação das alterações em activities.
+ */
+@Entity(name = "ActivityMonthlyRollup")
+@Table(name = "activity_monthly_rollup")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ActivityMonthlyRollup {
+
+    @EmbeddedId
+    private ActivityMonthlyRollupId id;
+
+    // Valores em centavos
+    @Column(name = "total_cents", nullable = false)
+    private long totalCents;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "min_cents", nullable = false)
+    private long minCents;
+
+    @Column(name = "max_cents", nullable = false)
+    private long maxCents;
+
+    public ActivityMonthlyRollup(ActivityMonthlyRollupId id, long totalCents, Long transactionCount,
+                                 long minCents, long maxCents) {
+        this.id = id;
+        this.totalCents = totalCents;
+        this.transactionCount = transactionCount;
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+    }
+
+    public int getYear() {
+        return id.getYearMonth() / 100;
+    }
+
+    public int getMonth() {
+        return id.getYearMonth() % 100;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.finance_control.domain.rollup;
+
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityMonthlyRollupId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    // Ano e mês no formato yyyyMM (ex.: 202410), no fuso padrão da aplicação
+    @Column(name = "year_month", nullable = false)
+    private Integer yearMonth;
+
+    @Column(name = "category", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Category category;
+
+    @Column(name = "type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Type type;
+}
@@ -0,0 +1,26 @@
+package com.example.finance_control.dto;
+
+import java.util.List;
+
+public record ActivityBatchResultDTO(
+        int received,
+        int created,
+        int failed,
+        List<ItemResult> results) {
+
+    // Resultado de cada item, na mesma ordem (index) do corpo da requisição
+    public record ItemResult(
+            int index,
+            String status, // "CREATED" ou "FAILED"
+            String id,
+            List<String> errors
+    ) {
+        public static ItemResult created(int index, String id) {
+            return new ItemResult(index, "CREATED", id, List.of());
+        }
+
+        public static ItemResult failed(int index, List<String> errors) {
+            return new ItemResult(index, "FAILED", null, errors);
+        }
+    }
+}
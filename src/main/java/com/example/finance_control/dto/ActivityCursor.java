@@ -0,0 +1,40 @@
+package com.example.finance_control.dto;
+
+import com.example.finance_control.exceptions.DomainException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por keyset em (date DESC, id DESC). Trafega como texto opaco
+ * (base64 de "epochSecond:nano:id"); o cliente apenas devolve o nextCursor recebido.
+ */
+public record ActivityCursor(Instant date, String id) {
+
+    // Primeira página: todas as atividades estão antes desta posição
+    public static final ActivityCursor FIRST = new ActivityCursor(Instant.parse("9999-12-31T23:59:59Z"), "");
+
+    public static ActivityCursor of(ActivityResponseDTO activity) {
+        return new ActivityCursor(activity.date(), activity.id());
+    }
+
+    public static ActivityCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 3);
+            Instant date = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new ActivityCursor(date, parts[2]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | java.time.DateTimeException e) {
+            throw new DomainException("Invalid pagination cursor.");
+        }
+    }
+
+    public String encode() {
+        String raw = date.getEpochSecond() + ":" + date.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
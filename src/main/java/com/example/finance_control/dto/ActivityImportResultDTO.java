@@ -0,0 +1,16 @@
+package com.example.finance_control.dto;
+
+import java.util.List;
+
+public record ActivityImportResultDTO(
+        int received,
+        int created,
+        int failed,
+        List<LineError> errors,
+        boolean errorsTruncated // true quando há mais erros do que os listados
+) {
+
+    // Linha do arquivo (contando o cabeçalho como linha 1) e o motivo da rejeição
+    public record LineError(int line, String error) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.finance_control.dto;
+
+import java.util.List;
+
+// Página de atividades; nextCursor é nulo na última página
+public record ActivityPageDTO(
+        List<ActivityResponseDTO> items,
+        String nextCursor,
+        int limit) {}
@@ -4,6 +4,7 @@ import com.example.finance_control.domain.category.Category;
 import com.example.finance_control.domain.type.Type;
 import jakarta.validation.constraints.*;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 
 public record ActivityRequestDTO(
@@ -23,7 +24,7 @@ public record ActivityRequestDTO(
         @DecimalMin(value = "0.01", message = "Valor deve ser maior que zero")
         @DecimalMax(value = "999999.99", message = "Valor muito alto (máximo R$ 999.999,99)")
         @Digits(integer = 6, fraction = 2, message = "Valor deve ter no máximo 6 dígitos e 2 casas decimais")
-        Double value,
+        BigDecimal value,
 
         @NotNull(message = "Tipo é obrigatório")
         Type type,
@@ -4,14 +4,16 @@ package com.example.finance_control.dto;
 import com.example.finance_control.domain.category.Category;
 import com.example.finance_control.domain.type.Type;
 import com.example.finance_control.domain.activity.Activity;
+import com.example.finance_control.utils.Money;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 
 public record ActivityResponseDTO(
         String id,
         Instant date,
         String description,
-        Double value,
+        BigDecimal value,
         Type type,
         Category category,
         CategoryInfo categoryInfo,
@@ -22,7 +24,7 @@ public record ActivityResponseDTO(
                 activity.getId(),
                 activity.getDate(),
                 activity.getDescription(),
-                activity.getValue(),
+                Money.fromCents(activity.getValueCents()),
                 activity.getType(),
                 activity.getCategory(),
                 new CategoryInfo(activity.getCategory()),
@@ -30,6 +32,12 @@ public record ActivityResponseDTO(
         );
     }
 
+    // Usado pelas projeções JPQL (SELECT new ...): user_id vem direto da coluna FK, sem carregar User
+    public ActivityResponseDTO(String id, Instant date, String description, long valueCents,
+                               Type type, Category category, String userId) {
+        this(id, date, description, Money.fromCents(valueCents), type, category, new CategoryInfo(category), userId);
+    }
+
     // DTO interno para informações da categoria
     public record CategoryInfo(
             String displayName,
@@ -2,15 +2,17 @@ package com.example.finance_control.dto;
 
 import com.example.finance_control.domain.category.Category;
 
+import java.math.BigDecimal;
+
 public record CategoryReportDTO(
         String categoryCode,
         String categoryName,
         String emoji,
         String color,
-        Double totalValue,
+        BigDecimal totalValue,
         Double percentage
 ) {
-    public CategoryReportDTO(Category category, Double totalValue) {
+    public CategoryReportDTO(Category category, BigDecimal totalValue) {
         this(
                 category.name(),
                 category.getDisplayName(),
@@ -22,7 +24,7 @@ public record CategoryReportDTO(
     }
 
     // Construtor com porcentagem
-    public CategoryReportDTO(Category category, Double totalValue, Double percentage) {
+    public CategoryReportDTO(Category category, BigDecimal totalValue, Double percentage) {
         this(
                 category.name(),
                 category.getDisplayName(),
@@ -0,0 +1,34 @@
+package com.example.finance_control.dto;
+
+import com.example.finance_control.domain.export.ExportFormat;
+import com.example.finance_control.domain.export.ExportJob;
+import com.example.finance_control.domain.export.ExportJobStatus;
+
+import java.time.Instant;
+
+// Estado de um job de exportação; downloadUrl só é preenchido quando o arquivo está pronto
+public record ExportJobDTO(
+        String id,
+        ExportFormat format,
+        ExportJobStatus status,
+        Instant createdAt,
+        Instant finishedAt,
+        Instant expiresAt,
+        Long sizeBytes,
+        String error,
+        String downloadUrl) {
+
+    public static ExportJobDTO of(ExportJob job) {
+        boolean completed = job.getStatus() == ExportJobStatus.COMPLETED;
+        return new ExportJobDTO(
+                job.getId(),
+                job.getFormat(),
+                job.getStatus(),
+                job.getCreatedAt(),
+                job.getFinishedAt(),
+                job.getExpiresAt(),
+                completed ? job.getSizeBytes() : null,
+                job.getError(),
+                completed ? "/activities/exports/" + job.getId() + "/file?userId=" + job.getUserId() : null);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.finance_control.dto.dashboard;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Getter
@@ -12,10 +13,10 @@ public class CategorySummaryDTO {
     private final String categoryName;
     private final String emoji;
     private final String color;
-    private final Double totalValue;
+    private final BigDecimal totalValue;
     private final Double percentage;
     private final Integer transactionCount;
-    private final Double averageTransactionValue;
+    private final BigDecimal averageTransactionValue;
     private final List<RecentTransaction> recentTransactions;
 
     @Getter
@@ -23,7 +24,7 @@ public class CategorySummaryDTO {
     public static class RecentTransaction {
         private final String id;
         private final String description;
-        private final Double value;
+        private final BigDecimal value;
         private final String date;
     }
 }
\ No newline at end of file
@@ -1,14 +1,18 @@
 package com.example.finance_control.dto.dashboard;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @Getter
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL) // seções não solicitadas (fields=) ficam de fora
 public class DashboardResponseDTO {
 
     private final FinancialSummary financialSummary;
@@ -20,13 +24,24 @@ public class DashboardResponseDTO {
 
     private final QuickStats quickStats;
 
+    // Cópia só com as seções solicitadas (as demais ficam nulas), a partir de um dashboard completo
+    public DashboardResponseDTO only(Set<DashboardSection> sections) {
+        return DashboardResponseDTO.builder()
+                .financialSummary(sections.contains(DashboardSection.FINANCIAL_SUMMARY) ? financialSummary : null)
+                .expensesByCategory(sections.contains(DashboardSection.EXPENSES_BY_CATEGORY) ? expensesByCategory : null)
+                .revenuesByCategory(sections.contains(DashboardSection.REVENUES_BY_CATEGORY) ? revenuesByCategory : null)
+                .monthlyEvolution(sections.contains(DashboardSection.MONTHLY_EVOLUTION) ? monthlyEvolution : null)
+                .quickStats(sections.contains(DashboardSection.QUICK_STATS) ? quickStats : null)
+                .build();
+    }
+
     @Getter
     @Builder
     public static class FinancialSummary {
-        private final Double totalRevenues;
-        private final Double totalExpenses;
-        private final Double currentBalance;
-        private final Double monthlyBalance;
+        private final BigDecimal totalRevenues;
+        private final BigDecimal totalExpenses;
+        private final BigDecimal currentBalance;
+        private final BigDecimal monthlyBalance;
         private final String balanceStatus; // "POSITIVE", "NEGATIVE", "NEUTRAL"
 
         @JsonFormat(pattern = "dd/MM/yyyy")
@@ -43,7 +58,7 @@ public class DashboardResponseDTO {
         private final String categoryName;
         private final String emoji;
         private final String color;
-        private final Double totalValue;
+        private final BigDecimal totalValue;
         private final Double percentage;
         private final Integer transactionCount;
     }
@@ -53,9 +68,9 @@ public class DashboardResponseDTO {
     public static class MonthlyEvolution {
         private final String month;
         private final Integer year;
-        private final Double revenues;
-        private final Double expenses;
-        private final Double balance;
+        private final BigDecimal revenues;
+        private final BigDecimal expenses;
+        private final BigDecimal balance;
 
         @JsonFormat(pattern = "MM/yyyy")
         private final String periodLabel;
@@ -65,11 +80,11 @@ public class DashboardResponseDTO {
     @Builder
     public static class QuickStats {
         private final Integer totalTransactions;
-        private final Double averageExpense;
-        private final Double averageRevenue;
+        private final BigDecimal averageExpense;
+        private final BigDecimal averageRevenue;
         private final String topExpenseCategory;
         private final String topRevenueCategory;
         private final Integer daysWithTransactions;
-        private final Double dailyAverageSpending;
+        private final BigDecimal dailyAverageSpending;
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.finance_control.dto.dashboard;
+
+import com.example.finance_control.exceptions.DomainException;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Seções do DashboardResponseDTO que podem ser solicitadas individualmente (parâmetro fields=)
+public enum DashboardSection {
+    FINANCIAL_SUMMARY("financialSummary"),
+    EXPENSES_BY_CATEGORY("expensesByCategory"),
+    REVENUES_BY_CATEGORY("revenuesByCategory"),
+    MONTHLY_EVOLUTION("monthlyEvolution"),
+    QUICK_STATS("quickStats");
+
+    public static final Set<DashboardSection> ALL = EnumSet.allOf(DashboardSection.class);
+
+    private final String field;
+
+    DashboardSection(String field) {
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public static DashboardSection fromField(String field) {
+        for (DashboardSection section : values()) {
+            if (section.field.equalsIgnoreCase(field) || section.name().equalsIgnoreCase(field)) {
+                return section;
+            }
+        }
+        throw new DomainException("Invalid dashboard field: " + field);
+    }
+
+    // Lista vazia ou nula = todas as seções
+    public static Set<DashboardSection> parse(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return ALL;
+        }
+        EnumSet<DashboardSection> sections = EnumSet.noneOf(DashboardSection.class);
+        for (String field : fields) {
+            if (!field.isBlank()) {
+                sections.add(fromField(field.trim()));
+            }
+        }
+        return sections.isEmpty() ? ALL : sections;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.finance_control.dto.dashboard;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Builder
+public class PeriodComparisonDTO {
+
+    @JsonFormat(pattern = "dd/MM/yyyy")
+    private final LocalDate currentStart;
+
+    @JsonFormat(pattern = "dd/MM/yyyy")
+    private final LocalDate currentEnd;
+
+    @JsonFormat(pattern = "dd/MM/yyyy")
+    private final LocalDate previousStart;
+
+    @JsonFormat(pattern = "dd/MM/yyyy")
+    private final LocalDate previousEnd;
+
+    private final Comparison balance;
+    private final List<TypeComparison> types;
+    private final List<CategoryComparison> categories;
+
+    @Getter
+    @Builder
+    public static class Comparison {
+        private final BigDecimal current;
+        private final BigDecimal previous;
+        private final BigDecimal difference;
+        private final Double percentageChange; // null quando o período anterior é zero
+    }
+
+    @Getter
+    @Builder
+    public static class TypeComparison {
+        private final String type; // REVENUE ou EXPENSE
+        private final Comparison value;
+        private final Integer currentTransactions;
+        private final Integer previousTransactions;
+    }
+
+    @Getter
+    @Builder
+    public static class CategoryComparison {
+        private final String categoryCode;
+        private final String categoryName;
+        private final String emoji;
+        private final String color;
+        private final String type;
+        private final Comparison value;
+        private final Integer currentTransactions;
+        private final Integer previousTransactions;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.finance_control.domain.activity.Activity;
 import com.example.finance_control.domain.user.User;
 import com.example.finance_control.dto.ActivityRequestDTO;
 import com.example.finance_control.dto.ActivityResponseDTO;
+import com.example.finance_control.utils.Money;
 
 public class ActivityMapper {
 
@@ -15,7 +16,7 @@ public class ActivityMapper {
         return new ActivityRequestDTO(
                 activity.getDate(),
                 activity.getDescription(),
-                activity.getValue(),
+                Money.fromCents(activity.getValueCents()),
                 activity.getType(),
                 activity.getCategory(),
                 activity.getUser() != null ? activity.getUser().getId() : null
@@ -31,7 +32,7 @@ public class ActivityMapper {
                 null, // ou qualquer valor padrão ou gerado automaticamente
                 dto.date(),
                 dto.description(),
-                dto.value(),
+                dto.value() != null ? Money.toCents(dto.value()) : 0L,
                 dto.type(),
                 dto.category(),
                 user // precisa passar o objeto User
@@ -47,7 +48,7 @@ public class ActivityMapper {
                 activity.getId(),
                 activity.getDate(),
                 activity.getDescription(),
-                activity.getValue(),
+                Money.fromCents(activity.getValueCents()),
                 activity.getType(),
                 activity.getCategory(),
                 new ActivityResponseDTO.CategoryInfo(activity.getCategory()),
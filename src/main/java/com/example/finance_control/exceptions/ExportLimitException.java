@@ -0,0 +1,7 @@
+package com.example.finance_control.exceptions;
+
+public class ExportLimitException extends RuntimeException {
+    public ExportLimitException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.finance_control.infra.cache;
+
+import com.example.finance_control.domain.activity.ActivityChangedEvent;
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória dos resultados do dashboard, limitado por tamanho (LRU por segmento, ver
+ * {@link StripedLruMap}) e por TTL. As entradas de um usuário são descartadas sempre que o
+ * ActivityService altera suas atividades.
+ *
+ * As estatísticas são publicadas no Micrometer com a tag cache=dashboard, com os mesmos nomes
+ * do cache de tokens.
+ */
+@Component
+@Slf4j
+public class DashboardCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "dashboard";
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final StripedLruMap<Key, Entry> entries;
+
+    // Geração por usuário: um cálculo iniciado antes de uma invalidação não é gravado. Fica em um
+    // array de tamanho fixo, então usuários que dividem a faixa só perdem uma gravação a mais
+    private final StripedCounters generations = new StripedCounters();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public DashboardCache(@Value("${dashboard.cache.max-size:10000}") int maxSize,
+                          @Value("${dashboard.cache.ttl:60s}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new StripedLruMap<>(Math.max(1, maxSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        if (maxSize <= 0) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (now - entry.createdAt < ttlNanos) {
+                hits.increment();
+                return (T) entry.value;
+            }
+            if (entries.remove(key, entry)) {
+                expirations.increment();
+            }
+        }
+
+        misses.increment();
+        long generation = generations.get(key.userId());
+        T value = loader.get();
+
+        if (generations.get(key.userId()) == generation) {
+            Entry loaded = new Entry(value, now);
+            entries.put(key, loaded);
+            // Uma invalidação entre a checagem e o put pode não ter visto esta entrada
+            if (generations.get(key.userId()) != generation) {
+                entries.remove(key, loaded);
+            }
+        }
+        return value;
+    }
+
+    // Valor já guardado para a chave, sem calcular; null se não houver ou se expirou
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(Key key) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null || System.nanoTime() - entry.createdAt >= ttlNanos) {
+            return null;
+        }
+        hits.increment();
+        return (T) entry.value;
+    }
+
+    public void invalidateUser(String userId) {
+        generations.increment(userId);
+        int removed = entries.removeIf((key, entry) -> key.userId().equals(userId));
+        invalidations.increment();
+        log.debug("Dashboard cache invalidated for user: {} ({} entries)", userId, removed);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        invalidateUser(event.userId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Dashboard results served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Dashboard results that had to be computed")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, cache -> cache.entries.evictions() + cache.expirations.sum())
+                .tags("cache", CACHE_NAME)
+                .description("Entries dropped by size limit or TTL")
+                .register(registry);
+        FunctionCounter.builder("cache.invalidations", invalidations, LongAdder::sum)
+                .tags("cache", CACHE_NAME)
+                .description("User invalidations")
+                .register(registry);
+        Gauge.builder("cache.size", entries, StripedLruMap::size)
+                .tags("cache", CACHE_NAME)
+                .description("Cached dashboard results")
+                .register(registry);
+    }
+
+    /**
+     * Chave do cache: usuário + visão (dashboard completo, resumo de categoria...) + período resolvido + filtros.
+     * As categorias são normalizadas em um EnumSet para que a ordem informada não gere chaves diferentes.
+     */
+    public record Key(String userId, String view, LocalDate start, LocalDate end,
+                      Set<Category> categories, Type type, Object detail) {
+
+        public static Key of(String userId, String view, LocalDate start, LocalDate end,
+                             Collection<Category> categories, Type type, Object detail) {
+            Set<Category> normalized = categories == null || categories.isEmpty()
+                    ? Set.of()
+                    : EnumSet.copyOf(categories);
+            return new Key(userId, view, start, end, normalized, type, detail);
+        }
+    }
+
+    private record Entry(Object value, long createdAt) {
+    }
+}
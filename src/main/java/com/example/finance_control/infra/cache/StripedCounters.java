@@ -0,0 +1,42 @@
+package com.example.finance_control.infra.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores por chave em um array de tamanho fixo: a chave escolhe a posição pelo hash, então
+ * chaves diferentes podem dividir o mesmo contador. Serve para gerações e versões, em que uma
+ * colisão só causa uma invalidação a mais, e não cresce com a quantidade de chaves já vistas.
+ * Os contadores nunca voltam a zero, então uma geração lida antes nunca reaparece depois.
+ */
+public class StripedCounters {
+
+    private static final int DEFAULT_STRIPES = 1024;
+
+    private final AtomicLongArray counters;
+
+    public StripedCounters() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public StripedCounters(int stripes) {
+        this.counters = new AtomicLongArray(Integer.highestOneBit(Math.max(1, stripes)));
+    }
+
+    public long get(Object key) {
+        return counters.get(indexFor(key));
+    }
+
+    public long increment(Object key) {
+        return counters.incrementAndGet(indexFor(key));
+    }
+
+    public long decrement(Object key) {
+        return counters.decrementAndGet(indexFor(key));
+    }
+
+    private int indexFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return hash & (counters.length() - 1);
+    }
+}
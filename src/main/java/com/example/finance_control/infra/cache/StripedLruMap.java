@@ -0,0 +1,126 @@
+package com.example.finance_control.infra.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/**
+ * Mapa LRU limitado por tamanho e dividido em segmentos, cada um com o próprio lock: requisições
+ * concorrentes só disputam um lock quando as chaves caem no mesmo segmento. A ordem de uso é
+ * mantida por segmento, então a entrada descartada é a menos usada do seu segmento (uma
+ * aproximação do LRU global). A capacidade total é dividida igualmente entre os segmentos.
+ */
+public class StripedLruMap<K, V> {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final LongAdder evictions = new LongAdder();
+
+    public StripedLruMap(int maxSize) {
+        this(maxSize, DEFAULT_SEGMENTS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedLruMap(int maxSize, int concurrency) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(concurrency, maxSize)));
+        int capacity = Math.max(1, (maxSize + count - 1) / count);
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(capacity, evictions);
+        }
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    // Troca a entrada apenas se ela ainda for a mesma; permite calcular o novo valor fora do lock
+    public boolean replace(K key, V oldValue, V newValue) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.replace(key, oldValue, newValue);
+        }
+    }
+
+    // Remove a entrada apenas se ela ainda for a mesma (ex.: a entrada expirada que acabou de ser lida)
+    public boolean remove(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key, value);
+        }
+    }
+
+    // Percorre um segmento por vez; devolve a quantidade de entradas removidas
+    public int removeIf(BiPredicate<? super K, ? super V> predicate) {
+        int removed = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                int before = segment.size();
+                segment.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue()));
+                removed += before - segment.size();
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    // Entradas descartadas por falta de espaço
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
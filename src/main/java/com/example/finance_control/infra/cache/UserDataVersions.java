@@ -0,0 +1,36 @@
+package com.example.finance_control.infra.cache;
+
+import com.example.finance_control.domain.activity.ActivityChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Versão monotônica dos dados de cada usuário, incrementada após o commit de qualquer
+ * alteração em suas atividades. O instante de inicialização compõe a versão para que
+ * valores emitidos antes de um restart nunca sejam reaproveitados.
+ *
+ * As versões ficam em um array de tamanho fixo ({@link StripedCounters}) em vez de um contador
+ * por usuário: usuários que dividem a faixa só invalidam o ETag um do outro a mais, e a memória
+ * não cresce com a quantidade de usuários atendidos.
+ */
+@Component
+public class UserDataVersions {
+
+    private final long bootId = System.currentTimeMillis();
+
+    private final StripedCounters versions = new StripedCounters();
+
+    public String currentVersion(String userId) {
+        return bootId + "." + versions.get(userId);
+    }
+
+    public void bump(String userId) {
+        versions.increment(userId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        bump(event.userId());
+    }
+}
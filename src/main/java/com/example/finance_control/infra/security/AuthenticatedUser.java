@@ -0,0 +1,8 @@
+package com.example.finance_control.infra.security;
+
+/**
+ * Principal das requisições autenticadas, montado a partir das claims do JWT (uid e subject)
+ * sem consultar a tabela users.
+ */
+public record AuthenticatedUser(String id, String email) {
+}
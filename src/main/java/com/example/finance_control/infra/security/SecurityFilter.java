@@ -2,6 +2,7 @@ package com.example.finance_control.infra.security;
 
 import com.example.finance_control.domain.user.User;
 import com.example.finance_control.repository.user.UserRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,29 +16,59 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
+    private static final List<SimpleGrantedAuthority> AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+
     @Autowired
     TokenService tokenService;
     @Autowired
+    TokenPrincipalCache tokenPrincipalCache;
+    @Autowired
     UserRepository userRepository;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         var token = this.recoverToken(request);
-        var login = tokenService.validateToken(token);
+        AuthenticatedUser user = token != null ? this.authenticate(token) : null;
 
-        if(login != null){
-            User user = userRepository.findByEmail(login).orElseThrow(() -> new RuntimeException("User Not Found"));
-            var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
-            var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
+        if(user != null){
+            var authentication = new UsernamePasswordAuthenticationToken(user, null, AUTHORITIES);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Acerto no cache: só uma busca no mapa. Falta: verifica o JWT e monta o principal a partir das
+     * claims; tokens emitidos antes da claim uid ainda buscam o usuário pelo e-mail.
+     */
+    private AuthenticatedUser authenticate(String token) {
+        AuthenticatedUser cached = tokenPrincipalCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        DecodedJWT decoded = tokenService.verify(token);
+        if (decoded == null) {
+            return null;
+        }
+        String login = decoded.getSubject();
+        long generation = tokenPrincipalCache.generation(login);
+        String userId = decoded.getClaim(TokenService.USER_ID_CLAIM).asString();
+        if (userId == null) {
+            User user = userRepository.findByEmail(login).orElseThrow(() -> new RuntimeException("User Not Found"));
+            userId = user.getId();
+        }
+        AuthenticatedUser principal = new AuthenticatedUser(userId, login);
+        tokenPrincipalCache.put(token, principal, decoded.getExpiresAtAsInstant(), generation);
+        return principal;
+    }
+
     private String recoverToken(HttpServletRequest request){
         var authHeader = request.getHeader("Authorization");
         if(authHeader == null) return null;
@@ -0,0 +1,126 @@
+package com.example.finance_control.infra.security;
+
+import com.example.finance_control.infra.cache.StripedCounters;
+import com.example.finance_control.infra.cache.StripedLruMap;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de tokens já verificados para o principal autenticado, limitado por tamanho (LRU por
+ * segmento, ver {@link StripedLruMap}). Cada entrada vale até o exp do próprio token, então um
+ * acerto dispensa a verificação HMAC (e, para tokens antigos sem a claim uid, a busca do usuário
+ * no banco). invalidateUser deve ser chamado quando um usuário é removido ou troca a senha, para
+ * que a próxima requisição volte a consultar o banco.
+ *
+ * Acertos, faltas, descartes e tamanho são publicados no Micrometer (cache.gets, cache.evictions,
+ * cache.size e cache.invalidations com a tag cache=tokens) e aparecem em /actuator/metrics.
+ */
+@Component
+@Slf4j
+public class TokenPrincipalCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "tokens";
+
+    private final int maxSize;
+
+    private final StripedLruMap<String, Entry> entries;
+
+    // Geração por e-mail: uma busca iniciada antes de uma invalidação não é gravada. Fica em um
+    // array de tamanho fixo, então e-mails que dividem a faixa só perdem uma gravação a mais
+    private final StripedCounters generations = new StripedCounters();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TokenPrincipalCache(@Value("${api.security.token.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new StripedLruMap<>(Math.max(1, maxSize));
+    }
+
+    // Principal de um token já verificado, ou null se o token não está no cache (ou expirou)
+    public AuthenticatedUser get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(token);
+        if (entry != null) {
+            if (System.currentTimeMillis() < entry.expiresAtMillis) {
+                hits.increment();
+                return entry.user;
+            }
+            if (entries.remove(token, entry)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Geração atual do usuário; deve ser lida antes de buscar o usuário no banco e repassada ao
+     * put, que descarta a entrada se houve uma invalidação no meio tempo.
+     */
+    public long generation(String email) {
+        return generations.get(email);
+    }
+
+    public void put(String token, AuthenticatedUser user, Instant expiresAt, long generation) {
+        if (maxSize <= 0 || expiresAt == null) {
+            return;
+        }
+        if (generations.get(user.email()) != generation) {
+            return;
+        }
+        Entry entry = new Entry(user, expiresAt.toEpochMilli());
+        entries.put(token, entry);
+        // invalidateUser incrementa a geração antes de varrer os segmentos: se ela mudou durante o
+        // put, a varredura pode não ter visto esta entrada, então ela é retirada aqui
+        if (generations.get(user.email()) != generation) {
+            entries.remove(token, entry);
+        }
+    }
+
+    public void invalidateUser(String email) {
+        generations.increment(email);
+        int removed = entries.removeIf((token, entry) -> entry.user.email().equals(email));
+        invalidations.increment();
+        log.debug("Token cache invalidated for user: {} ({} entries)", email, removed);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Tokens found in the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Tokens that had to be verified")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, cache -> cache.entries.evictions() + cache.expirations.sum())
+                .tags("cache", CACHE_NAME)
+                .description("Entries dropped by size limit or token expiry")
+                .register(registry);
+        FunctionCounter.builder("cache.invalidations", invalidations, LongAdder::sum)
+                .tags("cache", CACHE_NAME)
+                .description("User invalidations")
+                .register(registry);
+        Gauge.builder("cache.size", entries, StripedLruMap::size)
+                .tags("cache", CACHE_NAME)
+                .description("Cached tokens")
+                .register(registry);
+    }
+
+    private record Entry(AuthenticatedUser user, long expiresAtMillis) {
+    }
+}
@@ -3,9 +3,11 @@ package com.example.finance_control.infra.security;
 import com.example.finance_control.domain.user.User;
 import com.example.finance_control.exceptions.CreatingTokenException;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -16,16 +18,27 @@ import java.time.ZoneOffset;
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "seorganiza";
+    // Id do usuário; com ele o SecurityFilter monta o principal sem consultar o banco
+    public static final String USER_ID_CLAIM = "uid";
+
+    // Algorithm e JWTVerifier são imutáveis e thread-safe: criados uma vez, não a cada requisição
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    public TokenService(@Value("${api.security.token.secret}") String secret) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+    }
 
     public String generateToken(User user){
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-
             String token = JWT.create()
-                    .withIssuer("seorganiza")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
+                    .withClaim(USER_ID_CLAIM, user.getId())
                     .withExpiresAt(this.generateExpirationDate())
                     .sign(algorithm);
             return token;
@@ -35,13 +48,17 @@ public class TokenService {
     }
 
     public String validateToken(String token){
+        DecodedJWT decoded = verify(token);
+        return decoded != null ? decoded.getSubject() : null;
+    }
+
+    // Token verificado (assinatura, emissor e expiração) ou null se inválido
+    public DecodedJWT verify(String token) {
+        if (token == null) {
+            return null;
+        }
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("seorganiza")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            return verifier.verify(token);
         }catch (JWTVerificationException e){
             return null;
         }
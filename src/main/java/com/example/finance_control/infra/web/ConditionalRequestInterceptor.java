@@ -0,0 +1,82 @@
+package com.example.finance_control.infra.web;
+
+import com.example.finance_control.infra.cache.UserDataVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Enumeration;
+import java.util.zip.CRC32;
+
+/**
+ * Calcula ETags fortes para as consultas de um usuário e responde 304 quando o If-None-Match
+ * confere, antes de qualquer acesso ao repositório. O ETag combina a versão dos dados do usuário,
+ * a data corrente (os períodos relativos como CURRENT_MONTH mudam a cada dia) e a URL consultada.
+ * Quando a consulta segue para o controller, o header só é emitido em respostas 2xx
+ * ({@link ConditionalResponseBodyAdvice}), para que erros 400/404 não ganhem um ETag da URL.
+ */
+@Component
+public class ConditionalRequestInterceptor implements HandlerInterceptor {
+
+    static final String ETAG_ATTRIBUTE = ConditionalRequestInterceptor.class.getName() + ".etag";
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    @Autowired
+    private UserDataVersions userDataVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String userId = request.getParameter("userId");
+        if (userId == null || userId.isBlank()) {
+            return true;
+        }
+
+        String etag = buildETag(userId, request);
+        if (matchesIfNoneMatch(request, etag)) {
+            // O cliente já tem essa versão: 304 sem chegar ao controller
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    // Comparação fraca (RFC 9110): "W/" é ignorado e "*" confere com qualquer versão
+    private boolean matchesIfNoneMatch(HttpServletRequest request, String etag) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String buildETag(String userId, HttpServletRequest request) {
+        CRC32 crc = new CRC32();
+        crc.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        if (request.getQueryString() != null) {
+            crc.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"" + userDataVersions.currentVersion(userId)
+                + "-" + LocalDate.now().toEpochDay()
+                + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+}
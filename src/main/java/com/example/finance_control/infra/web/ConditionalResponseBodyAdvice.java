@@ -0,0 +1,41 @@
+package com.example.finance_control.infra.web;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Emite o ETag calculado pelo {@link ConditionalRequestInterceptor} logo antes de o corpo ser
+ * escrito, quando o status já é conhecido. Respostas de erro (incluindo as do
+ * GlobalExceptionHandler) não recebem o header.
+ */
+@ControllerAdvice
+public class ConditionalResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            Object etag = servletRequest.getServletRequest().getAttribute(ConditionalRequestInterceptor.ETAG_ATTRIBUTE);
+            int status = servletResponse.getServletResponse().getStatus();
+            if (etag != null && status >= 200 && status < 300) {
+                response.getHeaders().setETag(etag.toString());
+                response.getHeaders().setCacheControl(ConditionalRequestInterceptor.CACHE_CONTROL);
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.finance_control.repository.activity;
+
+import com.example.finance_control.domain.type.Type;
+
+import java.time.LocalDate;
+
+// Projeção: total de um tipo em um dia (no fuso da sessão JDBC), em centavos
+public record ActivityDailyTotal(
+        LocalDate day,
+        Type type,
+        Long count,
+        Long sum
+) {}
@@ -0,0 +1,10 @@
+package com.example.finance_control.repository.activity;
+
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+
+import java.time.Instant;
+
+// Linha da exportação: apenas as colunas escritas no arquivo, com o valor ainda em centavos
+public record ActivityExportRow(Instant date, String description, long valueCents, Type type, Category category) {
+}
@@ -0,0 +1,24 @@
+package com.example.finance_control.repository.activity;
+
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Filtro combinável de atividades. Apenas userId é obrigatório; campos nulos (ou coleções vazias)
+ * não restringem a consulta. Os limites de data e valor são inclusivos.
+ */
+@Builder(toBuilder = true)
+public record ActivityFilter(
+        String userId,
+        Collection<Type> types,
+        Collection<Category> categories,
+        Instant startDate,
+        Instant endDate,
+        Long minCents,
+        Long maxCents,
+        String description // trecho da descrição, sem diferenciar maiúsculas e minúsculas
+) {}
@@ -0,0 +1,23 @@
+package com.example.finance_control.repository.activity;
+
+import com.example.finance_control.domain.activity.Activity;
+import com.example.finance_control.dto.ActivityCursor;
+import com.example.finance_control.dto.ActivityResponseDTO;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Consultas dinâmicas (Criteria API) a partir de um ActivityFilter
+public interface ActivityFilterRepository {
+
+    // Página em (date DESC, id DESC) a partir do cursor, projetada direto para o DTO
+    List<ActivityResponseDTO> findPage(ActivityFilter filter, ActivityCursor cursor, int limit);
+
+    List<Activity> findAll(ActivityFilter filter);
+
+    // Cursor JDBC lido em lotes de fetchSize linhas; deve ser consumido dentro de uma transação e fechado
+    Stream<ActivityResponseDTO> stream(ActivityFilter filter, int fetchSize);
+
+    // Mesmo cursor, em ordem cronológica (date ASC, id ASC), para as exportações
+    Stream<ActivityExportRow> streamExportRows(ActivityFilter filter, int fetchSize);
+}
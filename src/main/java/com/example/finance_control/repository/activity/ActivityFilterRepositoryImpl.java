@@ -0,0 +1,145 @@
+package com.example.finance_control.repository.activity;
+
+import com.example.finance_control.domain.activity.Activity;
+import com.example.finance_control.dto.ActivityCursor;
+import com.example.finance_control.dto.ActivityResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Implementação do fragmento ActivityFilterRepository: monta um único SELECT com apenas os
+ * predicados informados no filtro, de modo que cada combinação use o índice correspondente
+ * da tabela activities.
+ */
+public class ActivityFilterRepositoryImpl implements ActivityFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ActivityResponseDTO> findPage(ActivityFilter filter, ActivityCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ActivityResponseDTO> query = cb.createQuery(ActivityResponseDTO.class);
+        Root<Activity> root = query.from(Activity.class);
+
+        List<Predicate> predicates = predicates(cb, root, filter);
+        if (cursor != null && !ActivityCursor.FIRST.equals(cursor)) {
+            Path<Instant> date = root.get("date");
+            Path<String> id = root.get("id");
+            predicates.add(cb.or(
+                    cb.lessThan(date, cursor.date()),
+                    cb.and(cb.equal(date, cursor.date()), cb.lessThan(id, cursor.id()))));
+        }
+
+        query.select(projection(cb, root))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(root.get("date")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Activity> findAll(ActivityFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Activity> query = cb.createQuery(Activity.class);
+        Root<Activity> root = query.from(Activity.class);
+
+        query.select(root)
+                .where(predicates(cb, root, filter).toArray(Predicate[]::new))
+                .orderBy(cb.desc(root.get("date")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public Stream<ActivityResponseDTO> stream(ActivityFilter filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ActivityResponseDTO> query = cb.createQuery(ActivityResponseDTO.class);
+        Root<Activity> root = query.from(Activity.class);
+
+        query.select(projection(cb, root))
+                .where(predicates(cb, root, filter).toArray(Predicate[]::new))
+                .orderBy(cb.desc(root.get("date")), cb.desc(root.get("id")));
+
+        // Projeção em DTO: nenhuma entidade fica no contexto de persistência durante a leitura
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<ActivityExportRow> streamExportRows(ActivityFilter filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ActivityExportRow> query = cb.createQuery(ActivityExportRow.class);
+        Root<Activity> root = query.from(Activity.class);
+
+        query.select(cb.construct(ActivityExportRow.class,
+                        root.get("date"),
+                        root.get("description"),
+                        root.get("valueCents"),
+                        root.get("type"),
+                        root.get("category")))
+                .where(predicates(cb, root, filter).toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("date")), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private CompoundSelection<ActivityResponseDTO> projection(CriteriaBuilder cb, Root<Activity> root) {
+        return cb.construct(ActivityResponseDTO.class,
+                root.get("id"),
+                root.get("date"),
+                root.get("description"),
+                root.get("valueCents"),
+                root.get("type"),
+                root.get("category"),
+                root.get("user").get("id"));
+    }
+
+    private List<Predicate> predicates(CriteriaBuilder cb, Root<Activity> root, ActivityFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("user").get("id"), filter.userId()));
+
+        if (filter.types() != null && !filter.types().isEmpty()) {
+            predicates.add(root.get("type").in(filter.types()));
+        }
+        if (filter.categories() != null && !filter.categories().isEmpty()) {
+            predicates.add(root.get("category").in(filter.categories()));
+        }
+        if (filter.startDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("date"), filter.endDate()));
+        }
+        if (filter.minCents() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("valueCents"), filter.minCents()));
+        }
+        if (filter.maxCents() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("valueCents"), filter.maxCents()));
+        }
+        if (filter.description() != null && !filter.description().isBlank()) {
+            String pattern = "%" + escapeLike(filter.description().trim().toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.like(cb.lower(root.get("description")), pattern, '\\'));
+        }
+        return predicates;
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
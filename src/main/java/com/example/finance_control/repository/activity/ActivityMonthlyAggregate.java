@@ -0,0 +1,22 @@
+package com.example.finance_control.repository.activity;
+
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+
+// Projeção das consultas agregadas: uma linha por (tipo, categoria, mês) ou por (tipo, categoria).
+// sum, min e max em centavos
+public record ActivityMonthlyAggregate(
+        Type type,
+        Category category,
+        Integer year,
+        Integer month,
+        Long count,
+        Long sum,
+        Long min,
+        Long max
+) {
+    // Linha sem quebra mensal (agrupada apenas por tipo e categoria)
+    public ActivityMonthlyAggregate(Type type, Category category, Long count, Long sum, Long min, Long max) {
+        this(type, category, null, null, count, sum, min, max);
+    }
+}
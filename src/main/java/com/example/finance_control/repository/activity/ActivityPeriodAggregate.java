@@ -0,0 +1,15 @@
+package com.example.finance_control.repository.activity;
+
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+
+/**
+ * Linha da comparação entre períodos: period = 1 para o período atual e 0 para o anterior.
+ * sum em centavos.
+ */
+public record ActivityPeriodAggregate(Integer period, Type type, Category category, Long count, Long sum) {
+
+    public boolean isCurrent() {
+        return period != null && period == 1;
+    }
+}
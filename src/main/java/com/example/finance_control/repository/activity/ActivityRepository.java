@@ -4,35 +4,124 @@ package com.example.finance_control.repository.activity;
 import com.example.finance_control.domain.activity.Activity;
 import com.example.finance_control.domain.category.Category;
 import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.dto.ActivityResponseDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ActivityRepository extends JpaRepository<Activity, String> {
+public interface ActivityRepository extends JpaRepository<Activity, String>, ActivityFilterRepository {
     // Adicionar metodo para buscar atividades por usuário
     List<Activity> findByUserId(String userId);
-    List<Activity> findByUserIdAndType(String userId, Type type);
 
-    List<Activity> findByUserIdAndCategory(String userId, Category category);
+    // Para relatórios por categoria
+    @Query("SELECT a.category, SUM(a.valueCents) FROM Activity a WHERE a.user.id = :userId AND a.type = :type GROUP BY a.category")
+    List<Object[]> findSumByUserIdAndTypeGroupByCategory(@Param("userId") String userId,
+                                                         @Param("type") Type type);
 
-    List<Activity> findByUserIdAndCategoryAndType(String userId, Category category, Type type);
+    // Agregações do dashboard - year/month/cast são avaliados no fuso da sessão JDBC (fuso padrão da JVM)
+    @Query("SELECT new com.example.finance_control.repository.activity.ActivityMonthlyAggregate(" +
+            "a.type, a.category, year(a.date), month(a.date), count(a), sum(a.valueCents), min(a.valueCents), max(a.valueCents)) " +
+            "FROM Activity a WHERE a.user.id = :userId AND a.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY a.type, a.category, year(a.date), month(a.date)")
+    List<ActivityMonthlyAggregate> aggregateByUserIdAndDateBetween(@Param("userId") String userId,
+                                                                   @Param("startDate") Instant startDate,
+                                                                   @Param("endDate") Instant endDate);
 
-    List<Activity> findByUserIdAndDateBetween(String userId, Instant startDate, Instant endDate);
+    // Mesma agregação sem a quebra mensal (year/month nulos)
+    @Query("SELECT new com.example.finance_control.repository.activity.ActivityMonthlyAggregate(" +
+            "a.type, a.category, count(a), sum(a.valueCents), min(a.valueCents), max(a.valueCents)) " +
+            "FROM Activity a WHERE a.user.id = :userId AND a.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY a.type, a.category")
+    List<ActivityMonthlyAggregate> aggregateByCategoryAndUserIdAndDateBetween(@Param("userId") String userId,
+                                                                              @Param("startDate") Instant startDate,
+                                                                              @Param("endDate") Instant endDate);
 
-    List<Activity> findByUserIdAndCategoryAndDateBetween(
-            String userId, Category category, Instant startDate, Instant endDate);
+    @Query("SELECT count(DISTINCT cast(a.date AS LocalDate)) FROM Activity a " +
+            "WHERE a.user.id = :userId AND a.date BETWEEN :startDate AND :endDate")
+    long countDistinctDaysByUserIdAndDateBetween(@Param("userId") String userId,
+                                                 @Param("startDate") Instant startDate,
+                                                 @Param("endDate") Instant endDate);
 
-    @Query("SELECT a FROM Activity a WHERE a.user.id = :userId AND a.category IN :categories")
-    List<Activity> findByUserIdAndCategoryIn(@Param("userId") String userId,
-                                             @Param("categories") List<Category> categories);
+    @Query("SELECT count(DISTINCT cast(a.date AS LocalDate)) FROM Activity a " +
+            "WHERE a.user.id = :userId AND a.date BETWEEN :startDate AND :endDate " +
+            "AND a.type IN :types AND a.category IN :categories")
+    long countDistinctDaysByUserIdAndDateBetween(@Param("userId") String userId,
+                                                 @Param("startDate") Instant startDate,
+                                                 @Param("endDate") Instant endDate,
+                                                 @Param("types") Collection<Type> types,
+                                                 @Param("categories") Collection<Category> categories);
 
-    // Para relatórios por categoria
-    @Query("SELECT a.category, SUM(a.value) FROM Activity a WHERE a.user.id = :userId AND a.type = :type GROUP BY a.category")
-    List<Object[]> findSumByUserIdAndTypeGroupByCategory(@Param("userId") String userId,
-                                                         @Param("type") Type type);
+    @Query("SELECT new com.example.finance_control.repository.activity.ActivityMonthlyAggregate(" +
+            "a.type, a.category, year(a.date), month(a.date), count(a), sum(a.valueCents), min(a.valueCents), max(a.valueCents)) " +
+            "FROM Activity a WHERE a.user.id = :userId " +
+            "GROUP BY a.type, a.category, year(a.date), month(a.date)")
+    List<ActivityMonthlyAggregate> aggregateByUserId(@Param("userId") String userId);
+
+    // Recalcula um único bucket do rollup mensal (intervalo [startDate, endDate))
+    @Query("SELECT new com.example.finance_control.repository.activity.ActivityMonthlyAggregate(" +
+            "a.type, a.category, year(a.date), month(a.date), count(a), sum(a.valueCents), min(a.valueCents), max(a.valueCents)) " +
+            "FROM Activity a WHERE a.user.id = :userId AND a.type = :type AND a.category = :category " +
+            "AND a.date >= :startDate AND a.date < :endDate " +
+            "GROUP BY a.type, a.category, year(a.date), month(a.date)")
+    List<ActivityMonthlyAggregate> aggregateBucket(@Param("userId") String userId,
+                                                   @Param("type") Type type,
+                                                   @Param("category") Category category,
+                                                   @Param("startDate") Instant startDate,
+                                                   @Param("endDate") Instant endDate);
+
+    // Base do índice de saldo diário (prefix-sum)
+    @Query("SELECT new com.example.finance_control.repository.activity.ActivityDailyTotal(" +
+            "cast(a.date AS LocalDate), a.type, count(a), sum(a.valueCents)) " +
+            "FROM Activity a WHERE a.user.id = :userId " +
+            "GROUP BY cast(a.date AS LocalDate), a.type ORDER BY cast(a.date AS LocalDate)")
+    List<ActivityDailyTotal> findDailyTotalsByUserId(@Param("userId") String userId);
+
+    // Resumo por categoria: agregação filtrada + N mais recentes (ORDER BY date DESC LIMIT n)
+    @Query("SELECT new com.example.finance_control.repository.activity.ActivityMonthlyAggregate(" +
+            "a.type, a.category, count(a), sum(a.valueCents), min(a.valueCents), max(a.valueCents)) " +
+            "FROM Activity a WHERE a.user.id = :userId AND a.category = :category " +
+            "AND a.date BETWEEN :startDate AND :endDate GROUP BY a.type, a.category")
+    List<ActivityMonthlyAggregate> aggregateByUserIdAndCategoryAndDateBetween(@Param("userId") String userId,
+                                                                              @Param("category") Category category,
+                                                                              @Param("startDate") Instant startDate,
+                                                                              @Param("endDate") Instant endDate);
+
+    @Query("SELECT new com.example.finance_control.dto.ActivityResponseDTO(" +
+            "a.id, a.date, a.description, a.valueCents, a.type, a.category, a.user.id) " +
+            "FROM Activity a WHERE a.user.id = :userId AND a.category = :category " +
+            "AND a.date BETWEEN :startDate AND :endDate ORDER BY a.date DESC, a.id DESC")
+    List<ActivityResponseDTO> findRecentByUserIdAndCategoryAndDateBetween(@Param("userId") String userId,
+                                                                          @Param("category") Category category,
+                                                                          @Param("startDate") Instant startDate,
+                                                                          @Param("endDate") Instant endDate,
+                                                                          Limit limit);
+
+    // Comparação entre períodos: uma única varredura do intervalo, separada em atual (1) e anterior (0)
+    @Query("SELECT new com.example.finance_control.repository.activity.ActivityPeriodAggregate(" +
+            "CASE WHEN a.date >= :splitDate THEN 1 ELSE 0 END, a.type, a.category, count(a), sum(a.valueCents)) " +
+            "FROM Activity a WHERE a.user.id = :userId AND a.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY CASE WHEN a.date >= :splitDate THEN 1 ELSE 0 END, a.type, a.category")
+    List<ActivityPeriodAggregate> aggregateByPeriodAndUserIdAndDateBetween(@Param("userId") String userId,
+                                                                          @Param("startDate") Instant startDate,
+                                                                          @Param("splitDate") Instant splitDate,
+                                                                          @Param("endDate") Instant endDate);
+
+    // Totais de todo o histórico do usuário por tipo (reconstrução do saldo corrente)
+    @Query("SELECT new com.example.finance_control.repository.activity.ActivityTypeTotal(" +
+            "a.type, count(a), sum(a.valueCents)) " +
+            "FROM Activity a WHERE a.user.id = :userId GROUP BY a.type")
+    List<ActivityTypeTotal> sumByUserIdGroupByType(@Param("userId") String userId);
+
+    // Totais de todo o histórico por tipo e categoria (saldo por categoria)
+    @Query("SELECT new com.example.finance_control.repository.activity.ActivityMonthlyAggregate(" +
+            "a.type, a.category, count(a), sum(a.valueCents), min(a.valueCents), max(a.valueCents)) " +
+            "FROM Activity a WHERE a.user.id = :userId GROUP BY a.type, a.category")
+    List<ActivityMonthlyAggregate> aggregateByCategoryAndUserId(@Param("userId") String userId);
 }
@@ -0,0 +1,10 @@
+package com.example.finance_control.repository.activity;
+
+import com.example.finance_control.domain.type.Type;
+
+// Projeção: total de um tipo em todo o histórico do usuário, em centavos
+public record ActivityTypeTotal(
+        Type type,
+        Long count,
+        Long sum
+) {}
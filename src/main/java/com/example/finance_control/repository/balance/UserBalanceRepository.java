@@ -0,0 +1,46 @@
+package com.example.finance_control.repository.balance;
+
+import com.example.finance_control.domain.balance.UserBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserBalanceRepository extends JpaRepository<UserBalance, String> {
+
+    // Soma a variação ao saldo existente (ou cria a linha) de forma atômica
+    @Modifying
+    @Query(value = "INSERT INTO user_balances (user_id, total_revenue_cents, total_expense_cents, transaction_count) " +
+            "VALUES (:userId, :revenue, :expense, :count) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "total_revenue_cents = user_balances.total_revenue_cents + EXCLUDED.total_revenue_cents, " +
+            "total_expense_cents = user_balances.total_expense_cents + EXCLUDED.total_expense_cents, " +
+            "transaction_count = user_balances.transaction_count + EXCLUDED.transaction_count",
+            nativeQuery = true)
+    void upsertAdd(@Param("userId") String userId,
+                   @Param("revenue") Long revenue,
+                   @Param("expense") Long expense,
+                   @Param("count") Long count);
+
+    // Cria a linha com os totais informados; se ela já existir (inclusive criada por outra transação), não faz nada
+    @Modifying
+    @Query(value = "INSERT INTO user_balances (user_id, total_revenue_cents, total_expense_cents, transaction_count) " +
+            "VALUES (:userId, :revenue, :expense, :count) " +
+            "ON CONFLICT (user_id) DO NOTHING",
+            nativeQuery = true)
+    void insertIfAbsent(@Param("userId") String userId,
+                        @Param("revenue") Long revenue,
+                        @Param("expense") Long expense,
+                        @Param("count") Long count);
+
+    // SELECT ... FOR UPDATE: espera as transações que já somaram no saldo e bloqueia as próximas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM UserBalance b WHERE b.userId = :userId")
+    Optional<UserBalance> findByIdForUpdate(@Param("userId") String userId);
+}
@@ -0,0 +1,70 @@
+package com.example.finance_control.repository.rollup;
+
+import com.example.finance_control.domain.rollup.ActivityMonthlyRollup;
+import com.example.finance_control.domain.rollup.ActivityMonthlyRollupId;
+import com.example.finance_control.domain.type.Type;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActivityMonthlyRollupRepository extends JpaRepository<ActivityMonthlyRollup, ActivityMonthlyRollupId> {
+
+    @Query("SELECT r FROM ActivityMonthlyRollup r WHERE r.id.userId = :userId " +
+            "AND r.id.yearMonth BETWEEN :fromYearMonth AND :toYearMonth")
+    List<ActivityMonthlyRollup> findByUserIdAndYearMonthBetween(@Param("userId") String userId,
+                                                                @Param("fromYearMonth") Integer fromYearMonth,
+                                                                @Param("toYearMonth") Integer toYearMonth);
+
+    @Query("SELECT r FROM ActivityMonthlyRollup r WHERE r.id.userId = :userId")
+    List<ActivityMonthlyRollup> findByUserId(@Param("userId") String userId);
+
+    @Query("SELECT r.id.category, SUM(r.totalCents) FROM ActivityMonthlyRollup r " +
+            "WHERE r.id.userId = :userId AND r.id.type = :type GROUP BY r.id.category")
+    List<Object[]> findSumByUserIdAndTypeGroupByCategory(@Param("userId") String userId,
+                                                         @Param("type") Type type);
+
+    // Soma um bucket ao rollup existente (ou cria a linha) de forma atômica
+    @Modifying
+    @Query(value = "INSERT INTO activity_monthly_rollup " +
+            "(user_id, year_month, category, type, total_cents, transaction_count, min_cents, max_cents) " +
+            "VALUES (:userId, :yearMonth, :category, :type, :total, :count, :min, :max) " +
+            "ON CONFLICT (user_id, year_month, category, type) DO UPDATE SET " +
+            "total_cents = activity_monthly_rollup.total_cents + EXCLUDED.total_cents, " +
+            "transaction_count = activity_monthly_rollup.transaction_count + EXCLUDED.transaction_count, " +
+            "min_cents = LEAST(activity_monthly_rollup.min_cents, EXCLUDED.min_cents), " +
+            "max_cents = GREATEST(activity_monthly_rollup.max_cents, EXCLUDED.max_cents)",
+            nativeQuery = true)
+    void upsertAdd(@Param("userId") String userId,
+                   @Param("yearMonth") Integer yearMonth,
+                   @Param("category") String category,
+                   @Param("type") String type,
+                   @Param("total") Long total,
+                   @Param("count") Long count,
+                   @Param("min") Long min,
+                   @Param("max") Long max);
+
+    // Cria a linha zerada do bucket se ela não existir, para que o recálculo sempre tenha o que travar
+    @Modifying
+    @Query(value = "INSERT INTO activity_monthly_rollup " +
+            "(user_id, year_month, category, type, total_cents, transaction_count, min_cents, max_cents) " +
+            "VALUES (:userId, :yearMonth, :category, :type, 0, 0, 0, 0) " +
+            "ON CONFLICT (user_id, year_month, category, type) DO NOTHING",
+            nativeQuery = true)
+    void insertIfAbsent(@Param("userId") String userId,
+                        @Param("yearMonth") Integer yearMonth,
+                        @Param("category") String category,
+                        @Param("type") String type);
+
+    // SELECT ... FOR UPDATE: espera as transações que já somaram no bucket e bloqueia as próximas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ActivityMonthlyRollup r WHERE r.id = :id")
+    Optional<ActivityMonthlyRollup> findByIdForUpdate(@Param("id") ActivityMonthlyRollupId id);
+}
@@ -0,0 +1,269 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.activity.Activity;
+import com.example.finance_control.domain.activity.ActivitySnapshot;
+import com.example.finance_control.domain.rollup.ActivityMonthlyRollup;
+import com.example.finance_control.domain.rollup.ActivityMonthlyRollupId;
+import com.example.finance_control.domain.user.User;
+import com.example.finance_control.repository.activity.ActivityMonthlyAggregate;
+import com.example.finance_control.repository.activity.ActivityRepository;
+import com.example.finance_control.repository.rollup.ActivityMonthlyRollupRepository;
+import com.example.finance_control.repository.user.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Mantém a tabela activity_monthly_rollup (soma, quantidade, mínimo e máximo por
+ * usuário/mês/categoria/tipo). Inserções somam o valor ao bucket; remoções e alterações
+ * recalculam os buckets afetados, já que mínimo e máximo não podem ser decrementados.
+ * O recálculo trava a linha do bucket antes de ler activities, e os buckets de uma mesma
+ * transação são sempre travados na mesma ordem para evitar deadlocks.
+ */
+@Service
+@Slf4j
+public class ActivityRollupService {
+
+    private static final Comparator<ActivityMonthlyRollupId> BUCKET_ORDER = Comparator
+            .comparing(ActivityMonthlyRollupId::getUserId)
+            .thenComparing(ActivityMonthlyRollupId::getYearMonth)
+            .thenComparing(ActivityMonthlyRollupId::getCategory)
+            .thenComparing(ActivityMonthlyRollupId::getType);
+
+    @Autowired
+    private ActivityMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${dashboard.rollup.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // yyyyMM do instante no fuso padrão da aplicação (o mesmo usado pelo dashboard)
+    public static int yearMonth(Instant date) {
+        LocalDate localDate = LocalDate.ofInstant(date, ZoneId.systemDefault());
+        return localDate.getYear() * 100 + localDate.getMonthValue();
+    }
+
+    public static int yearMonth(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onInsert(Activity activity) {
+        if (!enabled) {
+            return;
+        }
+        rollupRepository.upsertAdd(
+                activity.getUser().getId(),
+                yearMonth(activity.getDate()),
+                activity.getCategory().name(),
+                activity.getType().name(),
+                activity.getValueCents(),
+                1L,
+                activity.getValueCents(),
+                activity.getValueCents());
+    }
+
+    // Inserção em lote: um upsert por bucket com os totais já somados
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onInsertAll(List<ActivitySnapshot> added) {
+        if (!enabled || added.isEmpty()) {
+            return;
+        }
+        Map<ActivityMonthlyRollupId, ActivityMonthlyRollup> deltas = new HashMap<>();
+        for (ActivitySnapshot snapshot : added) {
+            long value = snapshot.valueCents();
+            deltas.merge(bucketOf(snapshot),
+                    new ActivityMonthlyRollup(bucketOf(snapshot), value, 1L, value, value),
+                    (delta, single) -> {
+                        delta.setTotalCents(delta.getTotalCents() + value);
+                        delta.setTransactionCount(delta.getTransactionCount() + 1);
+                        delta.setMinCents(Math.min(delta.getMinCents(), value));
+                        delta.setMaxCents(Math.max(delta.getMaxCents(), value));
+                        return delta;
+                    });
+        }
+        List<ActivityMonthlyRollup> ordered = deltas.values().stream()
+                .sorted(Comparator.comparing(ActivityMonthlyRollup::getId, BUCKET_ORDER))
+                .toList();
+        for (ActivityMonthlyRollup delta : ordered) {
+            ActivityMonthlyRollupId bucket = delta.getId();
+            rollupRepository.upsertAdd(
+                    bucket.getUserId(),
+                    bucket.getYearMonth(),
+                    bucket.getCategory().name(),
+                    bucket.getType().name(),
+                    delta.getTotalCents(),
+                    delta.getTransactionCount(),
+                    delta.getMinCents(),
+                    delta.getMaxCents());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUpdate(ActivitySnapshot before, ActivitySnapshot after) {
+        if (!enabled) {
+            return;
+        }
+        ActivityMonthlyRollupId oldBucket = bucketOf(before);
+        ActivityMonthlyRollupId newBucket = bucketOf(after);
+        if (oldBucket.equals(newBucket)) {
+            refreshBucket(oldBucket);
+        } else if (BUCKET_ORDER.compare(oldBucket, newBucket) < 0) {
+            refreshBucket(oldBucket);
+            refreshBucket(newBucket);
+        } else {
+            refreshBucket(newBucket);
+            refreshBucket(oldBucket);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onRemove(ActivitySnapshot removed) {
+        if (!enabled) {
+            return;
+        }
+        refreshBucket(bucketOf(removed));
+    }
+
+    /*
+     * Reconstrói todos os buckets do usuário a partir da tabela activities. As leituras iniciais só
+     * descobrem quais buckets existem (gravados ou com atividades); cada um é recalculado pelo
+     * refreshBucket, sob o lock da sua linha e na ordem de BUCKET_ORDER, então um upsertAdd
+     * concorrente não é perdido nem colide com a reconstrução. Buckets sem atividades são apagados
+     * pelo próprio refreshBucket, e os criados depois da leitura já nascem corretos pelo upsertAdd.
+     */
+    @Transactional
+    public void rebuild(String userId) {
+        Set<ActivityMonthlyRollupId> buckets = new TreeSet<>(BUCKET_ORDER);
+        for (ActivityMonthlyRollup stored : rollupRepository.findByUserId(userId)) {
+            buckets.add(stored.getId());
+        }
+        for (ActivityMonthlyAggregate aggregate : activityRepository.aggregateByUserId(userId)) {
+            buckets.add(toRollup(userId, aggregate).getId());
+        }
+        for (ActivityMonthlyRollupId bucket : buckets) {
+            refreshBucket(bucket);
+        }
+        log.info("Rebuilt {} monthly rollup buckets for user: {}", buckets.size(), userId);
+    }
+
+    // Compara os buckets gravados com os recalculados; retorna a quantidade de divergências
+    @Transactional(readOnly = true)
+    public int verify(String userId) {
+        Map<ActivityMonthlyRollupId, ActivityMonthlyRollup> expected = new HashMap<>();
+        for (ActivityMonthlyAggregate aggregate : activityRepository.aggregateByUserId(userId)) {
+            ActivityMonthlyRollup rollup = toRollup(userId, aggregate);
+            expected.put(rollup.getId(), rollup);
+        }
+
+        int mismatches = 0;
+        for (ActivityMonthlyRollup stored : rollupRepository.findByUserId(userId)) {
+            ActivityMonthlyRollup recomputed = expected.remove(stored.getId());
+            if (recomputed == null || !sameValues(stored, recomputed)) {
+                mismatches++;
+            }
+        }
+        return mismatches + expected.size();
+    }
+
+    // Job de verificação: reconstrói os rollups de usuários com divergências
+    @Scheduled(cron = "${dashboard.rollup.verify-cron:0 0 3 * * *}")
+    public void verifyAll() {
+        if (!enabled) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int repaired = 0;
+        for (User user : userRepository.findAll()) {
+            String userId = user.getId();
+            Integer mismatches = transactionTemplate.execute(status -> verify(userId));
+            if (mismatches != null && mismatches > 0) {
+                log.warn("Monthly rollup for user {} has {} divergent buckets, rebuilding", userId, mismatches);
+                transactionTemplate.executeWithoutResult(status -> rebuild(userId));
+                repaired++;
+            }
+        }
+        log.info("Monthly rollup verification finished, {} users rebuilt", repaired);
+    }
+
+    /*
+     * Recalcula um bucket sob o lock da sua linha (SELECT ... FOR UPDATE). Em READ COMMITTED a
+     * agregação seguinte já enxerga tudo que foi confirmado até o lock, e um upsertAdd concorrente
+     * espera o commit desta transação e soma o seu delta sobre o valor recalculado.
+     */
+    private void refreshBucket(ActivityMonthlyRollupId bucket) {
+        ActivityMonthlyRollup rollup;
+        do {
+            // Se outra transação apagar a linha entre o INSERT e o lock, cria de novo
+            rollupRepository.insertIfAbsent(bucket.getUserId(), bucket.getYearMonth(),
+                    bucket.getCategory().name(), bucket.getType().name());
+            rollup = rollupRepository.findByIdForUpdate(bucket).orElse(null);
+        } while (rollup == null);
+
+        int year = bucket.getYearMonth() / 100;
+        int month = bucket.getYearMonth() % 100;
+        LocalDate firstDay = LocalDate.of(year, month, 1);
+        Instant start = firstDay.atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant end = firstDay.plusMonths(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+
+        List<ActivityMonthlyAggregate> aggregates = activityRepository.aggregateBucket(
+                bucket.getUserId(), bucket.getType(), bucket.getCategory(), start, end);
+
+        if (aggregates.isEmpty()) {
+            rollupRepository.delete(rollup);
+        } else {
+            ActivityMonthlyAggregate aggregate = aggregates.get(0);
+            rollup.setTotalCents(aggregate.sum());
+            rollup.setTransactionCount(aggregate.count());
+            rollup.setMinCents(aggregate.min());
+            rollup.setMaxCents(aggregate.max());
+        }
+    }
+
+    private ActivityMonthlyRollupId bucketOf(ActivitySnapshot snapshot) {
+        return new ActivityMonthlyRollupId(
+                snapshot.userId(), yearMonth(snapshot.date()), snapshot.category(), snapshot.type());
+    }
+
+    private ActivityMonthlyRollup toRollup(String userId, ActivityMonthlyAggregate aggregate) {
+        ActivityMonthlyRollupId id = new ActivityMonthlyRollupId(
+                userId, aggregate.year() * 100 + aggregate.month(), aggregate.category(), aggregate.type());
+        return new ActivityMonthlyRollup(id, aggregate.sum(), aggregate.count(), aggregate.min(), aggregate.max());
+    }
+
+    private boolean sameValues(ActivityMonthlyRollup a, ActivityMonthlyRollup b) {
+        return Objects.equals(a.getTransactionCount(), b.getTransactionCount())
+                && a.getTotalCents() == b.getTotalCents()
+                && a.getMinCents() == b.getMinCents()
+                && a.getMaxCents() == b.getMaxCents();
+    }
+}
@@ -1,51 +1,296 @@
 package com.example.finance_control.service;
 import com.example.finance_control.domain.activity.Activity;
+import com.example.finance_control.domain.activity.ActivityChangedEvent;
+import com.example.finance_control.domain.activity.ActivitySnapshot;
 import com.example.finance_control.domain.category.Category;
 import com.example.finance_control.domain.type.Type;
 import com.example.finance_control.domain.user.User;
+import com.example.finance_control.dto.ActivityBatchResultDTO;
+import com.example.finance_control.dto.ActivityCursor;
+import com.example.finance_control.dto.ActivityImportResultDTO;
+import com.example.finance_control.dto.ActivityPageDTO;
 import com.example.finance_control.dto.ActivityRequestDTO;
 import com.example.finance_control.dto.ActivityResponseDTO;
 import com.example.finance_control.dto.CategoryReportDTO;
 import com.example.finance_control.dto.mapper.ActivityMapper;
 import com.example.finance_control.exceptions.DatabaseException;
+import com.example.finance_control.exceptions.DomainException;
 import com.example.finance_control.exceptions.ResourceNotFoundException;
+import com.example.finance_control.repository.activity.ActivityFilter;
+import com.example.finance_control.repository.activity.ActivityMonthlyAggregate;
 import com.example.finance_control.repository.activity.ActivityRepository;
+import com.example.finance_control.repository.rollup.ActivityMonthlyRollupRepository;
 import com.example.finance_control.repository.user.UserRepository;
+import com.example.finance_control.utils.Money;
+import com.example.finance_control.utils.StatementCsvReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ActivityService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_ITEMS = 10_000;
+    private static final int MAX_IMPORT_ERRORS = 1_000;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
     @Autowired
     private ActivityRepository repository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private ActivityRollupService rollupService;
+
+    @Autowired
+    private ActivityMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BalanceIndexService balanceIndexService;
+
+    @Autowired
+    private UserBalanceService userBalanceService;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Value("${activities.stream.fetch-size:500}")
+    private int streamFetchSize;
 
+
+    @Transactional
     public ActivityResponseDTO insertActivity(ActivityRequestDTO activityRequestDTO) {
-        User user = userRepository.findById(activityRequestDTO.userId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        User user = currentUserService.reference(activityRequestDTO.userId());
 
         Activity activity = ActivityMapper.toEntity(activityRequestDTO, user);
 
         Activity savedActivity = repository.save(activity);
+        ActivitySnapshot added = ActivitySnapshot.of(savedActivity);
+        rollupService.onInsert(savedActivity);
+        userBalanceService.onInsert(added);
+        eventPublisher.publishEvent(ActivityChangedEvent.inserted(added));
 
         return ActivityMapper.toResponseDTO(savedActivity);
     }
     
+    /**
+     * Inserção em lote: cada item é validado individualmente (Bean Validation + Activity.create),
+     * os usuários são buscados uma única vez e as atividades válidas são gravadas em blocos de
+     * batch_size com flush/clear, aproveitando o batch de INSERTs do JDBC. Rollup, saldo e eventos
+     * recebem os totais somados em vez de uma atualização por item.
+     */
+    @Transactional
+    public ActivityBatchResultDTO insertActivities(List<ActivityRequestDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new DomainException("At least one activity is required.");
+        }
+        if (items.size() > MAX_BATCH_ITEMS) {
+            throw new DomainException("A batch accepts at most " + MAX_BATCH_ITEMS + " activities.");
+        }
+
+        ActivityBatchResultDTO.ItemResult[] results = new ActivityBatchResultDTO.ItemResult[items.size()];
+
+        // Buscar todos os usuários envolvidos de uma vez
+        Set<String> userIds = new HashSet<>();
+        for (ActivityRequestDTO item : items) {
+            if (item != null && item.userId() != null) {
+                userIds.add(item.userId());
+            }
+        }
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+
+        List<Activity> pending = new ArrayList<>(Math.min(items.size(), batchSize));
+        List<Integer> pendingIndexes = new ArrayList<>(Math.min(items.size(), batchSize));
+        List<ActivitySnapshot> added = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            ActivityRequestDTO item = items.get(i);
+            if (item == null) {
+                results[i] = ActivityBatchResultDTO.ItemResult.failed(i, List.of("Activity is required."));
+                continue;
+            }
+
+            List<String> errors = validator.validate(item).stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .toList();
+            if (!errors.isEmpty()) {
+                results[i] = ActivityBatchResultDTO.ItemResult.failed(i, errors);
+                continue;
+            }
+
+            User user = users.get(item.userId());
+            if (user == null) {
+                results[i] = ActivityBatchResultDTO.ItemResult.failed(i, List.of("User not found"));
+                continue;
+            }
+
+            try {
+                pending.add(ActivityMapper.toEntity(item, user));
+                pendingIndexes.add(i);
+            } catch (DomainException e) {
+                results[i] = ActivityBatchResultDTO.ItemResult.failed(i, List.of(e.getMessage()));
+                continue;
+            }
+
+            if (pending.size() >= batchSize) {
+                flushBatch(pending, pendingIndexes, results, added);
+            }
+        }
+        flushBatch(pending, pendingIndexes, results, added);
+
+        rollupService.onInsertAll(added);
+        userBalanceService.onInsertAll(added);
+        added.stream()
+                .collect(Collectors.groupingBy(ActivitySnapshot::userId))
+                .forEach((userId, snapshots) ->
+                        eventPublisher.publishEvent(new ActivityChangedEvent(userId, List.of(), snapshots)));
+
+        return new ActivityBatchResultDTO(items.size(), added.size(), items.size() - added.size(),
+                Arrays.asList(results));
+    }
+
+    // Grava um bloco (INSERTs agrupados pelo JDBC) e libera o contexto de persistência
+    private void flushBatch(List<Activity> pending, List<Integer> pendingIndexes,
+                            ActivityBatchResultDTO.ItemResult[] results, List<ActivitySnapshot> added) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Activity> saved = repository.saveAll(pending);
+        entityManager.flush();
+        for (int i = 0; i < saved.size(); i++) {
+            Activity activity = saved.get(i);
+            results[pendingIndexes.get(i)] = ActivityBatchResultDTO.ItemResult.created(pendingIndexes.get(i), activity.getId());
+            added.add(ActivitySnapshot.of(activity));
+        }
+        entityManager.clear();
+        pending.clear();
+        pendingIndexes.clear();
+    }
+
+    /**
+     * Importa um extrato CSV lido em streaming: cada linha é validada por Activity.create e gravada
+     * em blocos de batchSize INSERTs. Rollups e saldo são atualizados a cada bloco e apenas os
+     * primeiros MAX_IMPORT_ERRORS erros são guardados, então a memória não cresce com o arquivo.
+     */
+    @Transactional
+    public ActivityImportResultDTO importActivities(String userId, Reader input) throws IOException {
+        User user = currentUserService.reference(userId);
+
+        int created = 0;
+        int failed = 0;
+        List<ActivityImportResultDTO.LineError> errors = new ArrayList<>();
+        List<Activity> pending = new ArrayList<>(batchSize);
+        Instant now = Instant.now();
+
+        try (StatementCsvReader reader = new StatementCsvReader(input)) {
+            while (true) {
+                Activity activity;
+                try {
+                    StatementCsvReader.Line line = reader.next();
+                    if (line == null) {
+                        break;
+                    }
+                    activity = toActivity(line, user, now);
+                } catch (DomainException e) {
+                    failed++;
+                    if (errors.size() < MAX_IMPORT_ERRORS) {
+                        errors.add(new ActivityImportResultDTO.LineError(reader.lineNumber(), e.getMessage()));
+                    }
+                    continue;
+                }
+
+                pending.add(activity);
+                if (pending.size() >= batchSize) {
+                    created += flushImportBatch(pending);
+                }
+            }
+            created += flushImportBatch(pending);
+        }
+
+        if (created > 0) {
+            eventPublisher.publishEvent(ActivityChangedEvent.bulk(userId));
+        }
+        return new ActivityImportResultDTO(created + failed, created, failed, errors, failed > errors.size());
+    }
+
+    private Activity toActivity(StatementCsvReader.Line line, User user, Instant now) {
+        if (line.date().isAfter(now)) {
+            throw new DomainException("Activity's date should not be in the future.");
+        }
+        if (line.description().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new DomainException("Activity's description should have at most " + MAX_DESCRIPTION_LENGTH + " characters.");
+        }
+        return Activity.create(null, line.date(), line.description(), line.valueCents(),
+                line.type(), line.category(), user);
+    }
+
+    // Grava um bloco da importação e aplica os rollups e o saldo só dessas linhas
+    private int flushImportBatch(List<Activity> pending) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Activity> saved = repository.saveAll(pending);
+        entityManager.flush();
+        List<ActivitySnapshot> added = new ArrayList<>(saved.size());
+        for (Activity activity : saved) {
+            added.add(ActivitySnapshot.of(activity));
+        }
+        rollupService.onInsertAll(added);
+        userBalanceService.onInsertAll(added);
+        entityManager.flush();
+        entityManager.clear();
+        pending.clear();
+        return added.size();
+    }
+
+    @Transactional
     public void removeActivity(String id, String userId) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        currentUserService.requireExisting(userId);
 
         Activity activity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Activity not found"));
@@ -56,6 +301,10 @@ public class ActivityService {
 
         try {
             repository.deleteById(id);
+            ActivitySnapshot removed = ActivitySnapshot.of(activity);
+            rollupService.onRemove(removed);
+            userBalanceService.onRemove(removed);
+            eventPublisher.publishEvent(ActivityChangedEvent.removed(removed));
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException(id);
         } catch (DataIntegrityViolationException e) {
@@ -63,138 +312,209 @@ public class ActivityService {
         }
     }
 
+    @Transactional
     public ActivityResponseDTO updateActivity(String id, ActivityRequestDTO activityRequestDTO) {
 
         Activity existingActivity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(id));
 
-        User user = userRepository.findById(activityRequestDTO.userId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        User user = currentUserService.reference(activityRequestDTO.userId());
+
+        ActivitySnapshot before = ActivitySnapshot.of(existingActivity);
 
         existingActivity.setDate(activityRequestDTO.date());
         existingActivity.setDescription(activityRequestDTO.description());
-        existingActivity.setValue(activityRequestDTO.value());
+        existingActivity.setValueCents(Money.toCents(activityRequestDTO.value()));
         existingActivity.setType(activityRequestDTO.type());
         existingActivity.setCategory(activityRequestDTO.category());
         existingActivity.setUser(user);
 
         // Salvar a atividade atualizada
         Activity savedActivity = repository.save(existingActivity);
+        ActivitySnapshot after = ActivitySnapshot.of(savedActivity);
+        rollupService.onUpdate(before, after);
+        userBalanceService.onUpdate(before, after);
+        // A atividade pode ter mudado de usuário: remove do antigo e adiciona ao novo
+        if (after.userId().equals(before.userId())) {
+            eventPublisher.publishEvent(ActivityChangedEvent.updated(before, after));
+        } else {
+            eventPublisher.publishEvent(ActivityChangedEvent.removed(before));
+            eventPublisher.publishEvent(ActivityChangedEvent.inserted(after));
+        }
 
         // Converter a entidade atualizada para DTO
         return ActivityMapper.toResponseDTO(savedActivity);
     }
 
-    public List<ActivityResponseDTO> listActivities(String userId) {
+    public ActivityPageDTO listActivities(String userId, String cursor, int limit) {
         // Verificar se o usuário existe
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        currentUserService.requireExisting(userId);
 
-        // Buscar atividades associadas ao usuário
-        List<Activity> activities = repository.findByUserId(userId);
+        // Buscar uma página das atividades associadas ao usuário
+        return findPage(ActivityFilter.builder().userId(userId).build(), cursor, limit);
+    }
 
-        // Mapear atividades para DTO
-        return activities.stream()
-                .map(ActivityMapper::toResponseDTO)
-                .toList();
+    // Filtro combinável: tipos, categorias, período, faixa de valor e descrição
+    public ActivityPageDTO searchActivities(ActivityFilter filter, String cursor, int limit) {
+        validateFilter(filter);
+        return findPage(filter, cursor, limit);
+    }
+
+    /**
+     * Lista todas as atividades do filtro como um array JSON escrito linha a linha na resposta.
+     * A validação acontece antes de a resposta começar; a escrita roda depois, em uma transação
+     * somente leitura que mantém o cursor JDBC aberto, com memória constante por requisição.
+     */
+    public StreamingResponseBody streamActivities(ActivityFilter filter) {
+        validateFilter(filter);
+        return outputStream -> writeActivitiesJson(filter, outputStream);
+    }
+
+    private void writeActivitiesJson(ActivityFilter filter, OutputStream outputStream) throws IOException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ActivityResponseDTO> activities = repository.stream(filter, streamFetchSize)) {
+                    Iterator<ActivityResponseDTO> iterator = activities.iterator();
+                    while (iterator.hasNext()) {
+                        generator.writeObject(iterator.next());
+                    }
+                } catch (IOException e) {
+                    // Cliente desconectou no meio da resposta
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void validateFilter(ActivityFilter filter) {
+        currentUserService.requireExisting(filter.userId());
+
+        if (filter.minCents() != null && filter.maxCents() != null && filter.minCents() > filter.maxCents()) {
+            throw new DomainException("Minimum value should not be greater than maximum value.");
+        }
+        if (filter.startDate() != null && filter.endDate() != null && filter.startDate().isAfter(filter.endDate())) {
+            throw new DomainException("Start date should not be after end date.");
+        }
     }
 
-    public Double calculateBalance(String userId) {
+    public BigDecimal calculateBalance(String userId) {
         // Verificar se o usuário existe
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        currentUserService.requireExisting(userId);
 
-        // Buscar as atividades do usuário
-        List<Activity> activities = repository.findByUserId(userId);
+        // Ledger de saldo: leitura de uma única linha por chave primária
+        if (userBalanceService.isEnabled()) {
+            return Money.fromCents(userBalanceService.getBalance(userId).getBalanceCents());
+        }
 
-        if (activities.isEmpty()) {
-            return 0.0;
+        // Índice de saldo diário: evita carregar todo o histórico a cada consulta
+        if (balanceIndexService.isEnabled()) {
+            return Money.fromCents(balanceIndexService.totals(userId).balance());
         }
 
-        // Calcular o saldo
-        return activities.stream()
-                .mapToDouble(a -> a.getType() == Type.REVENUE
-                        ? a.getValue()
-                        : -a.getValue())
-                .sum();
+        // Calcular o saldo a partir dos totais por tipo
+        return Money.fromCents(repository.sumByUserIdGroupByType(userId).stream()
+                .mapToLong(total -> total.type() == Type.REVENUE
+                        ? total.sum()
+                        : -total.sum())
+                .sum());
     }
 
-    public List<ActivityResponseDTO> getActivitiesByType(String userId, Type type) {
-        List<Activity> activities = repository.findByUserIdAndType(userId, type);
-        return activities.stream()
-                .map(ActivityResponseDTO::new)
-                .toList();
+    public ActivityPageDTO getActivitiesByType(String userId, Type type, String cursor, int limit) {
+        return findPage(ActivityFilter.builder()
+                .userId(userId)
+                .types(List.of(type))
+                .build(), cursor, limit);
     }
 
-    public List<ActivityResponseDTO> getActivitiesByCategory(String userId, Category category) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        List<Activity> activities = repository.findByUserIdAndCategory(userId, category);
-        return activities.stream()
-                .map(ActivityMapper::toResponseDTO)
-                .toList();
+    public ActivityPageDTO getActivitiesByCategory(String userId, Category category, String cursor, int limit) {
+        return searchActivities(ActivityFilter.builder()
+                .userId(userId)
+                .categories(List.of(category))
+                .build(), cursor, limit);
     }
 
-    public List<ActivityResponseDTO> getActivitiesByCategoryAndType(String userId, Category category, Type type) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        List<Activity> activities = repository.findByUserIdAndCategoryAndType(userId, category, type);
-        return activities.stream()
-                .map(ActivityMapper::toResponseDTO)
-                .toList();
+    public ActivityPageDTO getActivitiesByCategoryAndType(String userId, Category category, Type type,
+                                                          String cursor, int limit) {
+        return searchActivities(ActivityFilter.builder()
+                .userId(userId)
+                .types(List.of(type))
+                .categories(List.of(category))
+                .build(), cursor, limit);
     }
 
-    public List<ActivityResponseDTO> getActivitiesByDateRange(String userId, Instant startDate, Instant endDate) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    public ActivityPageDTO getActivitiesByDateRange(String userId, Instant startDate, Instant endDate,
+                                                    String cursor, int limit) {
+        return searchActivities(ActivityFilter.builder()
+                .userId(userId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build(), cursor, limit);
+    }
 
-        List<Activity> activities = repository.findByUserIdAndDateBetween(userId, startDate, endDate);
-        return activities.stream()
-                .map(ActivityMapper::toResponseDTO)
-                .toList();
+    public ActivityPageDTO getActivitiesByCategoryAndDateRange(
+            String userId, Category category, Instant startDate, Instant endDate, String cursor, int limit) {
+        return searchActivities(ActivityFilter.builder()
+                .userId(userId)
+                .categories(List.of(category))
+                .startDate(startDate)
+                .endDate(endDate)
+                .build(), cursor, limit);
     }
 
-    public List<ActivityResponseDTO> getActivitiesByCategoryAndDateRange(
-            String userId, Category category, Instant startDate, Instant endDate) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    /**
+     * Paginação por keyset em (date DESC, id DESC): cada página parte da última posição
+     * retornada, com custo constante mesmo em páginas profundas. Busca limit + 1 linhas
+     * para saber se existe uma próxima página.
+     */
+    private ActivityPageDTO findPage(ActivityFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ActivityCursor position = ActivityCursor.decode(cursor);
 
-        List<Activity> activities = repository.findByUserIdAndCategoryAndDateBetween(
-                userId, category, startDate, endDate);
-        return activities.stream()
-                .map(ActivityMapper::toResponseDTO)
-                .toList();
+        // Projeção direta para o DTO: sem hidratar entidades nem carregar o usuário
+        List<ActivityResponseDTO> items = repository.findPage(filter, position, pageSize + 1);
+
+        if (items.size() <= pageSize) {
+            return new ActivityPageDTO(items, null, pageSize);
+        }
+        List<ActivityResponseDTO> page = items.subList(0, pageSize);
+        return new ActivityPageDTO(page, ActivityCursor.of(page.get(pageSize - 1)).encode(), pageSize);
     }
 
     // Relatório por categorias
     public List<CategoryReportDTO> getCategoryReport(String userId, Type type) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        currentUserService.requireExisting(userId);
 
-        List<Object[]> results = repository.findSumByUserIdAndTypeGroupByCategory(userId, type);
+        // O rollup mensal tem O(meses x categorias) linhas, independente do volume de transações
+        List<Object[]> results = rollupService.isEnabled()
+                ? rollupRepository.findSumByUserIdAndTypeGroupByCategory(userId, type)
+                : repository.findSumByUserIdAndTypeGroupByCategory(userId, type);
 
         return results.stream()
                 .map(result -> new CategoryReportDTO(
                         (Category) result[0],
-                        (Double) result[1]
+                        Money.fromCents((Long) result[1])
                 ))
                 .toList();
     }
 
     // Balanço por categoria
-    public Map<Category, Double> getBalanceByCategory(String userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        List<Activity> activities = repository.findByUserId(userId);
+    public Map<Category, BigDecimal> getBalanceByCategory(String userId) {
+        currentUserService.requireExisting(userId);
 
-        return activities.stream()
+        // Agregado no banco por tipo e categoria
+        return repository.aggregateByCategoryAndUserId(userId).stream()
                 .collect(Collectors.groupingBy(
-                        Activity::getCategory,
-                        Collectors.summingDouble(a ->
-                                a.getType() == Type.REVENUE ? a.getValue() : -a.getValue())
+                        ActivityMonthlyAggregate::category,
+                        Collectors.collectingAndThen(
+                                Collectors.summingLong(a -> a.type() == Type.REVENUE ? a.sum() : -a.sum()),
+                                Money::fromCents)
                 ));
     }
 }
@@ -0,0 +1,157 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.activity.ActivityChangedEvent;
+import com.example.finance_control.domain.activity.ActivitySnapshot;
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.infra.cache.StripedCounters;
+import com.example.finance_control.infra.cache.StripedLruMap;
+import com.example.finance_control.repository.activity.ActivityRepository;
+import com.example.finance_control.utils.EpochDates;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Mantém um {@link DailyBalanceIndex} por usuário. O índice é construído sob demanda a partir
+ * dos totais diários do banco e, enquanto estiver em memória, recebe as alterações de cada
+ * ActivityChangedEvent após o commit. Os índices menos usados são descartados (LRU por segmento,
+ * ver {@link StripedLruMap}) e cada índice expira depois do TTL, sendo reconstruído na leitura
+ * seguinte. Não há lock global: leituras e escritas de usuários diferentes não se bloqueiam.
+ *
+ * Uma escrita fica "em andamento" do BEFORE_COMMIT até o fim da transação. Um índice construído
+ * enquanto alguma escrita do usuário estava em andamento pode já conter essa escrita e recebê-la
+ * de novo pelo evento, então ele é usado na requisição mas não é guardado. Geração e escritas em
+ * andamento ficam em contadores por faixa de hash ({@link StripedCounters}): usuários que caem na
+ * mesma faixa só deixam de guardar um índice a mais.
+ */
+@Service
+@Slf4j
+public class BalanceIndexService {
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final StripedLruMap<String, Entry> indexes;
+
+    // generation muda a cada início e fim de escrita; inFlight conta as escritas em andamento
+    private final StripedCounters generations = new StripedCounters();
+    private final StripedCounters inFlight = new StripedCounters();
+
+    public BalanceIndexService(@Value("${balance.index.enabled:true}") boolean enabled,
+                               @Value("${balance.index.max-users:10000}") int maxUsers,
+                               @Value("${balance.index.ttl:1h}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.indexes = new StripedLruMap<>(Math.max(1, maxUsers));
+    }
+
+    private record Entry(DailyBalanceIndex index, long expiresAt) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public DailyBalanceIndex.Totals totals(String userId) {
+        return index(userId).total();
+    }
+
+    public DailyBalanceIndex.Totals totals(String userId, LocalDate start, LocalDate end) {
+        return index(userId).range(start.toEpochDay(), end.toEpochDay());
+    }
+
+    private DailyBalanceIndex index(String userId) {
+        Entry entry = indexes.get(userId);
+        if (entry != null && System.nanoTime() - entry.expiresAt() < 0) {
+            return entry.index();
+        }
+
+        // A geração é lida antes de inFlight; a escrita faz o contrário ao começar (ver onActivityChanged)
+        long generation = generations.get(userId);
+        boolean writing = inFlight.get(userId) > 0;
+
+        DailyBalanceIndex index = DailyBalanceIndex.build(activityRepository.findDailyTotalsByUserId(userId));
+        log.debug("Built daily balance index for user: {}", userId);
+
+        if (!writing && generations.get(userId) == generation) {
+            Entry built = new Entry(index, System.nanoTime() + ttlNanos);
+            indexes.put(userId, built);
+            // Uma escrita que começou entre a checagem e o put pode não ter encontrado este índice
+            if (generations.get(userId) != generation) {
+                indexes.remove(userId, built);
+            }
+        }
+        return index;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        String userId = event.userId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Sem transação a alteração já está gravada: o índice é reconstruído na próxima leitura
+            generations.increment(userId);
+            indexes.remove(userId);
+            return;
+        }
+
+        inFlight.increment(userId);
+        generations.increment(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyChange(event);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                generations.increment(userId);
+                inFlight.decrement(userId);
+            }
+        });
+    }
+
+    // Os arrays novos são montados fora do lock; se outra escrita trocou o índice no meio, refaz
+    private void applyChange(ActivityChangedEvent event) {
+        String userId = event.userId();
+        while (true) {
+            Entry entry = indexes.get(userId);
+            if (entry == null) {
+                return;
+            }
+            if (event.bulk()) {
+                // Alteração em massa sem as linhas: o índice é reconstruído na próxima leitura
+                indexes.remove(userId, entry);
+                return;
+            }
+            DailyBalanceIndex index = entry.index();
+            for (ActivitySnapshot removed : event.removed()) {
+                index = apply(index, removed, -1);
+            }
+            for (ActivitySnapshot added : event.added()) {
+                index = apply(index, added, 1);
+            }
+            if (indexes.replace(userId, entry, new Entry(index, entry.expiresAt()))) {
+                return;
+            }
+        }
+    }
+
+    private DailyBalanceIndex apply(DailyBalanceIndex index, ActivitySnapshot snapshot, int sign) {
+        long day = EpochDates.epochDay(snapshot.date(), ZoneId.systemDefault().getRules());
+        long value = sign * snapshot.valueCents();
+        return snapshot.type() == Type.REVENUE
+                ? index.withDelta(day, value, 0, sign)
+                : index.withDelta(day, 0, value, sign);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.user.User;
+import com.example.finance_control.exceptions.ResourceNotFoundException;
+import com.example.finance_control.infra.security.AuthenticatedUser;
+import com.example.finance_control.repository.user.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Validação do userId recebido pelas operações. Quando a requisição está autenticada com um
+ * token do próprio usuário, o id já foi garantido pelo JWT e o banco não é consultado; nos demais
+ * casos (jobs, chamadas sem principal, outro userId) a existência é conferida na tabela users.
+ */
+@Service
+public class CurrentUserService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public void requireExisting(String userId) {
+        if (isAuthenticatedAs(userId)) {
+            return;
+        }
+        if (userId == null || !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+    }
+
+    // Usuário para associar a novas atividades; com o principal, uma referência (proxy) basta para a FK
+    public User reference(String userId) {
+        if (isAuthenticatedAs(userId)) {
+            return userRepository.getReferenceById(userId);
+        }
+        if (userId == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    private boolean isAuthenticatedAs(String userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return userId != null
+                && authentication != null
+                && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                && userId.equals(principal.id());
+    }
+}
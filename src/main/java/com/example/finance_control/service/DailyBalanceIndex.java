@@ -0,0 +1,142 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.repository.activity.ActivityDailyTotal;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice de somas acumuladas (prefix-sum) por dia de um usuário: para cada epoch-day com
+ * atividades guarda receita, despesa e quantidade acumuladas até aquele dia. Qualquer intervalo
+ * é respondido subtraindo duas entradas encontradas por busca binária - O(log n).
+ * Valores em centavos.
+ *
+ * Instâncias são imutáveis; {@link #withDelta} devolve uma cópia com a alteração aplicada.
+ */
+public final class DailyBalanceIndex {
+
+    private final long[] days;
+    private final long[] cumulativeRevenue;
+    private final long[] cumulativeExpense;
+    private final int[] cumulativeCount;
+
+    private DailyBalanceIndex(long[] days, long[] cumulativeRevenue, long[] cumulativeExpense,
+                              int[] cumulativeCount) {
+        this.days = days;
+        this.cumulativeRevenue = cumulativeRevenue;
+        this.cumulativeExpense = cumulativeExpense;
+        this.cumulativeCount = cumulativeCount;
+    }
+
+    // Os totais precisam chegar ordenados por dia (uma linha por dia e tipo)
+    public static DailyBalanceIndex build(List<ActivityDailyTotal> totals) {
+        int capacity = totals.size();
+        long[] days = new long[capacity];
+        long[] revenue = new long[capacity];
+        long[] expense = new long[capacity];
+        int[] count = new int[capacity];
+
+        int n = 0;
+        long runningRevenue = 0;
+        long runningExpense = 0;
+        int runningCount = 0;
+        for (ActivityDailyTotal total : totals) {
+            long day = total.day().toEpochDay();
+            if (n == 0 || days[n - 1] != day) {
+                days[n++] = day;
+            }
+            if (total.type() == Type.REVENUE) {
+                runningRevenue += total.sum();
+            } else {
+                runningExpense += total.sum();
+            }
+            runningCount += total.count().intValue();
+            revenue[n - 1] = runningRevenue;
+            expense[n - 1] = runningExpense;
+            count[n - 1] = runningCount;
+        }
+
+        return new DailyBalanceIndex(
+                Arrays.copyOf(days, n), Arrays.copyOf(revenue, n), Arrays.copyOf(expense, n), Arrays.copyOf(count, n));
+    }
+
+    // Totais do intervalo [fromDay, toDay] (epoch-days, inclusivos)
+    public Totals range(long fromDay, long toDay) {
+        int hi = upperBound(toDay);
+        int lo = lowerBound(fromDay);
+        if (hi <= lo) {
+            return Totals.EMPTY;
+        }
+        return new Totals(
+                prefix(cumulativeRevenue, hi) - prefix(cumulativeRevenue, lo),
+                prefix(cumulativeExpense, hi) - prefix(cumulativeExpense, lo),
+                cumulativeCount[hi - 1] - (lo == 0 ? 0 : cumulativeCount[lo - 1]));
+    }
+
+    public Totals total() {
+        int n = days.length;
+        return n == 0 ? Totals.EMPTY : new Totals(cumulativeRevenue[n - 1], cumulativeExpense[n - 1], cumulativeCount[n - 1]);
+    }
+
+    // Cópia com uma alteração pontual em um dia (valores negativos para remoções)
+    public DailyBalanceIndex withDelta(long day, long revenue, long expense, int count) {
+        int position = Arrays.binarySearch(days, day);
+        boolean exists = position >= 0;
+        int index = exists ? position : -position - 1;
+        int n = days.length + (exists ? 0 : 1);
+
+        long[] newDays = new long[n];
+        long[] newRevenue = new long[n];
+        long[] newExpense = new long[n];
+        int[] newCount = new int[n];
+
+        System.arraycopy(days, 0, newDays, 0, index);
+        System.arraycopy(cumulativeRevenue, 0, newRevenue, 0, index);
+        System.arraycopy(cumulativeExpense, 0, newExpense, 0, index);
+        System.arraycopy(cumulativeCount, 0, newCount, 0, index);
+
+        int shift = exists ? 0 : 1;
+        if (!exists) {
+            newDays[index] = day;
+            newRevenue[index] = index == 0 ? 0 : cumulativeRevenue[index - 1];
+            newExpense[index] = index == 0 ? 0 : cumulativeExpense[index - 1];
+            newCount[index] = index == 0 ? 0 : cumulativeCount[index - 1];
+        }
+        System.arraycopy(days, index, newDays, index + shift, days.length - index);
+        System.arraycopy(cumulativeRevenue, index, newRevenue, index + shift, days.length - index);
+        System.arraycopy(cumulativeExpense, index, newExpense, index + shift, days.length - index);
+        System.arraycopy(cumulativeCount, index, newCount, index + shift, days.length - index);
+
+        for (int i = index; i < n; i++) {
+            newRevenue[i] += revenue;
+            newExpense[i] += expense;
+            newCount[i] += count;
+        }
+        return new DailyBalanceIndex(newDays, newRevenue, newExpense, newCount);
+    }
+
+    // Quantidade de dias <= day
+    private int upperBound(long day) {
+        int position = Arrays.binarySearch(days, day);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    // Quantidade de dias < day
+    private int lowerBound(long day) {
+        int position = Arrays.binarySearch(days, day);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private static long prefix(long[] cumulative, int length) {
+        return length == 0 ? 0 : cumulative[length - 1];
+    }
+
+    public record Totals(long revenue, long expense, int count) {
+        static final Totals EMPTY = new Totals(0, 0, 0);
+
+        public long balance() {
+            return revenue - expense;
+        }
+    }
+}
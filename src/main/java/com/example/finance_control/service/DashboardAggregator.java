@@ -0,0 +1,402 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.activity.Activity;
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.dto.dashboard.DashboardResponseDTO;
+import com.example.finance_control.dto.dashboard.DashboardSection;
+import com.example.finance_control.repository.activity.ActivityMonthlyAggregate;
+import com.example.finance_control.utils.EpochDates;
+import com.example.finance_control.utils.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Motor de agregação do dashboard: percorre as atividades uma única vez e preenche
+ * todas as seções (resumo, distribuição por categoria, evolução mensal e estatísticas).
+ *
+ * Os acumuladores são arrays primitivos (valores em centavos) indexados por {@link Type#ordinal()},
+ * {@link Category#ordinal()} e epoch-month; os dias com transações ficam em um {@link BitSet}.
+ * Também aceita linhas já agregadas pelo banco ({@link ActivityMonthlyAggregate}); nesse caso
+ * a contagem de dias com transações vem de uma consulta própria via {@link #setDaysWithTransactions}.
+ * Uma instância atende uma única requisição e não é thread-safe.
+ */
+public class DashboardAggregator {
+
+    private static final Type[] TYPES = Type.values();
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int REVENUE = Type.REVENUE.ordinal();
+    private static final int EXPENSE = Type.EXPENSE.ordinal();
+
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+    private final ZoneRules zoneRules;
+
+    // Filtros opcionais (null = sem filtro)
+    private boolean[] categoryMask;
+    private Type typeFilter;
+
+    private int transactionCount;
+    private final long[] typeTotals = new long[TYPES.length];
+    private final int[] typeCounts = new int[TYPES.length];
+    private final long[][] categoryTotals = new long[TYPES.length][CATEGORIES.length];
+    private final int[][] categoryCounts = new int[TYPES.length][CATEGORIES.length];
+
+    // Buckets mensais: índice = epochMonth - monthBase
+    private int monthBase;
+    private long[][] monthTotals;
+    private int[] monthCounts;
+
+    // Dias com transações: bit = epochDay - dayBase
+    private long dayBase;
+    private final BitSet days = new BitSet();
+    private int daysWithTransactions = -1;
+
+    public DashboardAggregator(LocalDate periodStart, LocalDate periodEnd, ZoneId zone) {
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.zoneRules = zone.getRules();
+        this.monthBase = EpochDates.epochMonth(periodStart);
+        int months = Math.max(1, EpochDates.epochMonth(periodEnd) - monthBase + 1);
+        this.monthTotals = new long[TYPES.length][months];
+        this.monthCounts = new int[months];
+        this.dayBase = periodStart.toEpochDay();
+    }
+
+    public DashboardAggregator withFilter(Collection<Category> categories, Type type) {
+        if (categories != null && !categories.isEmpty()) {
+            categoryMask = new boolean[CATEGORIES.length];
+            for (Category category : categories) {
+                categoryMask[category.ordinal()] = true;
+            }
+        }
+        this.typeFilter = type;
+        return this;
+    }
+
+    public void accept(Activity activity) {
+        Type type = activity.getType();
+        Category category = activity.getCategory();
+        if (!matches(type, category)) {
+            return;
+        }
+
+        long value = activity.getValueCents();
+        int t = type.ordinal();
+        int c = category.ordinal();
+        long epochDay = EpochDates.epochDay(activity.getDate(), zoneRules);
+        int m = monthIndex(EpochDates.epochMonth(epochDay));
+
+        transactionCount++;
+        typeTotals[t] += value;
+        typeCounts[t]++;
+        categoryTotals[t][c] += value;
+        categoryCounts[t][c]++;
+        monthTotals[t][m] += value;
+        monthCounts[m]++;
+        markDay(epochDay);
+    }
+
+    public void acceptAll(Iterable<Activity> activities) {
+        for (Activity activity : activities) {
+            accept(activity);
+        }
+    }
+
+    public void accept(ActivityMonthlyAggregate aggregate) {
+        if (aggregate.year() == null) {
+            acceptTotals(aggregate.type(), aggregate.category(), aggregate.count(), aggregate.sum());
+        } else {
+            acceptBucket(aggregate.type(), aggregate.category(),
+                    aggregate.year() * 12 + aggregate.month() - 1, aggregate.count(), aggregate.sum());
+        }
+    }
+
+    // Soma um bucket pré-agregado (tipo, categoria, mês) - usado pelas consultas agregadas e pelo rollup mensal
+    public void acceptBucket(Type type, Category category, int epochMonth, long count, long sum) {
+        if (!matches(type, category)) {
+            return;
+        }
+
+        int t = type.ordinal();
+        int c = category.ordinal();
+        int m = monthIndex(epochMonth);
+
+        transactionCount += (int) count;
+        typeTotals[t] += sum;
+        typeCounts[t] += (int) count;
+        categoryTotals[t][c] += sum;
+        categoryCounts[t][c] += (int) count;
+        monthTotals[t][m] += sum;
+        monthCounts[m] += (int) count;
+    }
+
+    // Totais por (tipo, categoria) sem quebra mensal - suficiente quando a evolução mensal não foi solicitada
+    public void acceptTotals(Type type, Category category, long count, long sum) {
+        if (!matches(type, category)) {
+            return;
+        }
+
+        int t = type.ordinal();
+        int c = category.ordinal();
+
+        transactionCount += (int) count;
+        typeTotals[t] += sum;
+        typeCounts[t] += (int) count;
+        categoryTotals[t][c] += sum;
+        categoryCounts[t][c] += (int) count;
+    }
+
+    // Apenas o total de um tipo (sem categoria) - suficiente para o resumo financeiro
+    public void acceptTypeTotals(Type type, long count, long sum) {
+        if (typeFilter != null && type != typeFilter) {
+            return;
+        }
+
+        int t = type.ordinal();
+        transactionCount += (int) count;
+        typeTotals[t] += sum;
+        typeCounts[t] += (int) count;
+    }
+
+    public void acceptAggregates(Iterable<ActivityMonthlyAggregate> aggregates) {
+        for (ActivityMonthlyAggregate aggregate : aggregates) {
+            accept(aggregate);
+        }
+    }
+
+    // Usado quando as linhas chegam agregadas e o BitSet de dias não pode ser preenchido
+    public void setDaysWithTransactions(long daysWithTransactions) {
+        this.daysWithTransactions = (int) daysWithTransactions;
+    }
+
+    // Soma os acumuladores de outro agregador do mesmo período (blocos processados em paralelo)
+    public void merge(DashboardAggregator other) {
+        transactionCount += other.transactionCount;
+        for (int t = 0; t < TYPES.length; t++) {
+            typeTotals[t] += other.typeTotals[t];
+            typeCounts[t] += other.typeCounts[t];
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                categoryTotals[t][c] += other.categoryTotals[t][c];
+                categoryCounts[t][c] += other.categoryCounts[t][c];
+            }
+        }
+        for (int m = 0; m < other.monthCounts.length; m++) {
+            if (other.monthCounts[m] == 0) {
+                continue;
+            }
+            int index = monthIndex(other.monthBase + m);
+            monthCounts[index] += other.monthCounts[m];
+            for (int t = 0; t < TYPES.length; t++) {
+                monthTotals[t][index] += other.monthTotals[t][m];
+            }
+        }
+        for (int i = other.days.nextSetBit(0); i >= 0; i = other.days.nextSetBit(i + 1)) {
+            markDay(other.dayBase + i);
+        }
+    }
+
+    private boolean matches(Type type, Category category) {
+        if (typeFilter != null && type != typeFilter) {
+            return false;
+        }
+        return categoryMask == null || categoryMask[category.ordinal()];
+    }
+
+    private int monthIndex(int epochMonth) {
+        int index = epochMonth - monthBase;
+        if (index >= 0 && index < monthCounts.length) {
+            return index;
+        }
+        // Fora da janela prevista (ex.: fuso diferente do usado na consulta): expande os buckets
+        int newBase = Math.min(monthBase, epochMonth);
+        int newLength = Math.max(monthBase + monthCounts.length, epochMonth + 1) - newBase;
+        int shift = monthBase - newBase;
+        long[][] totals = new long[TYPES.length][newLength];
+        for (int t = 0; t < TYPES.length; t++) {
+            System.arraycopy(monthTotals[t], 0, totals[t], shift, monthCounts.length);
+        }
+        int[] counts = new int[newLength];
+        System.arraycopy(monthCounts, 0, counts, shift, monthCounts.length);
+        monthTotals = totals;
+        monthCounts = counts;
+        monthBase = newBase;
+        return epochMonth - monthBase;
+    }
+
+    private void markDay(long epochDay) {
+        if (epochDay < dayBase) {
+            int shift = (int) (dayBase - epochDay);
+            BitSet shifted = new BitSet();
+            for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+                shifted.set(i + shift);
+            }
+            days.clear();
+            days.or(shifted);
+            dayBase = epochDay;
+        }
+        days.set((int) (epochDay - dayBase));
+    }
+
+    public DashboardResponseDTO toResponse() {
+        return toResponse(DashboardSection.ALL);
+    }
+
+    // Monta apenas as seções solicitadas; as demais ficam nulas
+    public DashboardResponseDTO toResponse(Set<DashboardSection> sections) {
+        DashboardResponseDTO.DashboardResponseDTOBuilder builder = DashboardResponseDTO.builder();
+        if (sections.contains(DashboardSection.FINANCIAL_SUMMARY)) {
+            builder.financialSummary(buildFinancialSummary());
+        }
+        if (sections.contains(DashboardSection.EXPENSES_BY_CATEGORY)) {
+            builder.expensesByCategory(buildCategoryDistribution(Type.EXPENSE));
+        }
+        if (sections.contains(DashboardSection.REVENUES_BY_CATEGORY)) {
+            builder.revenuesByCategory(buildCategoryDistribution(Type.REVENUE));
+        }
+        if (sections.contains(DashboardSection.MONTHLY_EVOLUTION)) {
+            builder.monthlyEvolution(buildMonthlyEvolution());
+        }
+        if (sections.contains(DashboardSection.QUICK_STATS)) {
+            builder.quickStats(buildQuickStats());
+        }
+        return builder.build();
+    }
+
+    public DashboardResponseDTO.FinancialSummary buildFinancialSummary() {
+        long totalRevenues = typeTotals[REVENUE];
+        long totalExpenses = typeTotals[EXPENSE];
+        long currentBalance = totalRevenues - totalExpenses;
+
+        String balanceStatus;
+        if (currentBalance > 0) {
+            balanceStatus = "POSITIVE";
+        } else if (currentBalance < 0) {
+            balanceStatus = "NEGATIVE";
+        } else {
+            balanceStatus = "NEUTRAL";
+        }
+
+        return DashboardResponseDTO.FinancialSummary.builder()
+                .totalRevenues(Money.fromCents(totalRevenues))
+                .totalExpenses(Money.fromCents(totalExpenses))
+                .currentBalance(Money.fromCents(currentBalance))
+                .monthlyBalance(Money.fromCents(currentBalance)) //Por simplicidade, considerando o mesmo valor
+                .balanceStatus(balanceStatus)
+                .periodStart(periodStart)
+                .periodEnd(periodEnd)
+                .build();
+    }
+
+    public List<DashboardResponseDTO.CategoryDistribution> buildCategoryDistribution(Type type) {
+        int t = type.ordinal();
+        if (typeCounts[t] == 0) {
+            return Collections.emptyList();
+        }
+
+        long totalValue = typeTotals[t];
+        long[] totals = categoryTotals[t];
+        int[] counts = categoryCounts[t];
+
+        // Ordena os ordinais presentes por valor decrescente (empates mantêm a ordem do enum)
+        Integer[] order = new Integer[CATEGORIES.length];
+        int size = 0;
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            if (counts[c] > 0) {
+                order[size++] = c;
+            }
+        }
+        Arrays.sort(order, 0, size, (c1, c2) -> Long.compare(totals[c2], totals[c1]));
+
+        List<DashboardResponseDTO.CategoryDistribution> distribution = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int c = order[i];
+            Category category = CATEGORIES[c];
+            distribution.add(DashboardResponseDTO.CategoryDistribution.builder()
+                    .categoryCode(category.name())
+                    .categoryName(category.getDisplayName())
+                    .emoji(category.getEmoji())
+                    .color(category.getColor())
+                    .totalValue(Money.fromCents(totals[c]))
+                    .percentage(Money.percentage(totals[c], totalValue))
+                    .transactionCount(counts[c])
+                    .build());
+        }
+        return distribution;
+    }
+
+    public List<DashboardResponseDTO.MonthlyEvolution> buildMonthlyEvolution() {
+        List<DashboardResponseDTO.MonthlyEvolution> evolution = new ArrayList<>();
+        for (int m = 0; m < monthCounts.length; m++) {
+            if (monthCounts[m] == 0) {
+                continue;
+            }
+            int epochMonth = monthBase + m;
+            int year = EpochDates.yearOf(epochMonth);
+            String month = EpochDates.twoDigits(EpochDates.monthOf(epochMonth));
+            long revenues = monthTotals[REVENUE][m];
+            long expenses = monthTotals[EXPENSE][m];
+
+            evolution.add(DashboardResponseDTO.MonthlyEvolution.builder()
+                    .month(month)
+                    .year(year)
+                    .revenues(Money.fromCents(revenues))
+                    .expenses(Money.fromCents(expenses))
+                    .balance(Money.fromCents(revenues - expenses))
+                    .periodLabel(month + "/" + year)
+                    .build());
+        }
+        return evolution;
+    }
+
+    public DashboardResponseDTO.QuickStats buildQuickStats() {
+        if (transactionCount == 0) {
+            return DashboardResponseDTO.QuickStats.builder()
+                    .totalTransactions(0)
+                    .averageExpense(Money.fromCents(0))
+                    .averageRevenue(Money.fromCents(0))
+                    .topExpenseCategory("")
+                    .topRevenueCategory("")
+                    .daysWithTransactions(0)
+                    .dailyAverageSpending(Money.fromCents(0))
+                    .build();
+        }
+
+        BigDecimal averageExpense = Money.divide(typeTotals[EXPENSE], typeCounts[EXPENSE]);
+        BigDecimal averageRevenue = Money.divide(typeTotals[REVENUE], typeCounts[REVENUE]);
+
+        long daysBetween = ChronoUnit.DAYS.between(periodStart, periodEnd) + 1;
+        BigDecimal dailyAverageSpending = Money.divide(typeTotals[EXPENSE], Math.max(0, daysBetween));
+
+        return DashboardResponseDTO.QuickStats.builder()
+                .totalTransactions(transactionCount)
+                .averageExpense(averageExpense)
+                .averageRevenue(averageRevenue)
+                .topExpenseCategory(topCategory(EXPENSE))
+                .topRevenueCategory(topCategory(REVENUE))
+                .daysWithTransactions(daysWithTransactions >= 0 ? daysWithTransactions : days.cardinality())
+                .dailyAverageSpending(dailyAverageSpending)
+                .build();
+    }
+
+    private String topCategory(int t) {
+        int top = -1;
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            if (categoryCounts[t][c] > 0 && (top < 0 || categoryTotals[t][c] > categoryTotals[t][top])) {
+                top = c;
+            }
+        }
+        return top < 0 ? "" : CATEGORIES[top].getDisplayName();
+    }
+}
@@ -2,14 +2,20 @@ package com.example.finance_control.service;
 
 import com.example.finance_control.domain.activity.Activity;
 import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.rollup.ActivityMonthlyRollup;
 import com.example.finance_control.domain.type.Type;
-import com.example.finance_control.domain.user.User;
 import com.example.finance_control.dto.dashboard.*;
-import com.example.finance_control.exceptions.ResourceNotFoundException;
+import com.example.finance_control.infra.cache.DashboardCache;
+import com.example.finance_control.repository.activity.ActivityFilter;
+import com.example.finance_control.repository.activity.ActivityMonthlyAggregate;
+import com.example.finance_control.repository.activity.ActivityPeriodAggregate;
 import com.example.finance_control.repository.activity.ActivityRepository;
-import com.example.finance_control.repository.user.UserRepository;
+import com.example.finance_control.repository.rollup.ActivityMonthlyRollupRepository;
+import com.example.finance_control.utils.Money;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -17,93 +23,163 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class DashboardService {
 
+    public static final int DEFAULT_RECENT_TRANSACTIONS = 5;
+    private static final int MAX_RECENT_TRANSACTIONS = 50;
+
     @Autowired
     private ActivityRepository activityRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserService currentUserService;
 
-    public DashboardResponseDTO getDashboardData(DashboardFilterDTO filter) {
-        log.info("Generating dashboard data for user: {}", filter.getUserId());
+    @Autowired
+    private ActivityRollupService rollupService;
 
-        //Validar se o usuário existe
-        User user = userRepository.findById(filter.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private BalanceIndexService balanceIndexService;
 
+    @Autowired
+    private ActivityMonthlyRollupRepository rollupRepository;
+
+    // DATABASE: agrega no banco (tipo, categoria, mês); MEMORY: carrega as atividades e agrega em Java
+    @Value("${dashboard.aggregation.mode:DATABASE}")
+    private AggregationMode aggregationMode;
+
+    // Paralelismo em virtual threads só compensa em períodos longos / muitas linhas
+    @Value("${dashboard.parallel.enabled:true}")
+    private boolean parallelEnabled;
+
+    @Value("${dashboard.parallel.min-days:90}")
+    private int parallelMinDays;
+
+    @Value("${dashboard.parallel.min-rows:20000}")
+    private int parallelMinRows;
+
+    public DashboardResponseDTO getDashboardData(DashboardFilterDTO filter) {
+        return getDashboardData(filter, DashboardSection.ALL);
+    }
+
+    /**
+     * Calcula apenas as seções solicitadas: a evolução mensal é a única que exige agrupar por mês
+     * e a contagem de dias com transações só é consultada para as estatísticas rápidas.
+     */
+    public DashboardResponseDTO getDashboardData(DashboardFilterDTO filter, Set<DashboardSection> sections) {
         //Determinar período de análise
         DateRange dateRange = calculateDateRange(filter);
+        Set<DashboardSection> requested = sections.isEmpty() ? DashboardSection.ALL : EnumSet.copyOf(sections);
 
-        //Buscar atividades do período
-        List<Activity> activities = getActivitiesInPeriod(filter.getUserId(), dateRange);
+        DashboardCache.Key fullKey = DashboardCache.Key.of(filter.getUserId(), "dashboard",
+                dateRange.start, dateRange.end, filter.getCategories(), filter.getType(), DashboardSection.ALL);
+        if (requested.equals(DashboardSection.ALL)) {
+            return dashboardCache.get(fullKey, () -> computeDashboardData(filter, dateRange, requested));
+        }
 
-        //Filtrar por categorias se especificado
-        if (filter.getCategories() != null && !filter.getCategories().isEmpty()) {
-            activities = activities.stream()
-                    .filter(activity -> filter.getCategories().contains(activity.getCategory()))
-                    .collect(Collectors.toList());
+        //Widgets (/summary, /quick-stats, fields=...) reaproveitam o dashboard completo já calculado
+        DashboardResponseDTO full = dashboardCache.getIfPresent(fullKey);
+        if (full != null) {
+            return full.only(requested);
         }
+        DashboardCache.Key key = DashboardCache.Key.of(filter.getUserId(), "dashboard",
+                dateRange.start, dateRange.end, filter.getCategories(), filter.getType(), requested);
+        return dashboardCache.get(key, () -> computeDashboardData(filter, dateRange, requested));
+    }
 
-        //Filtrar por tipo se especificado
-        if (filter.getType() != null) {
-            activities = activities.stream()
-                    .filter(activity -> activity.getType() == filter.getType())
-                    .collect(Collectors.toList());
+    private DashboardResponseDTO computeDashboardData(DashboardFilterDTO filter, DateRange dateRange,
+                                                      Set<DashboardSection> sections) {
+        log.info("Generating dashboard data for user: {}, sections: {}", filter.getUserId(), sections);
+
+        //Validar se o usuário existe
+        currentUserService.requireExisting(filter.getUserId());
+
+        DashboardAggregator aggregator = new DashboardAggregator(dateRange.start, dateRange.end, ZoneId.systemDefault())
+                .withFilter(filter.getCategories(), filter.getType());
+
+        boolean hasCategoryFilter = filter.getCategories() != null && !filter.getCategories().isEmpty();
+        if (!hasCategoryFilter && balanceIndexService.isEnabled()
+                && sections.equals(EnumSet.of(DashboardSection.FINANCIAL_SUMMARY))) {
+            //Somente o resumo financeiro: duas consultas ao índice de saldo diário (prefix-sum)
+            DailyBalanceIndex.Totals totals = balanceIndexService.totals(
+                    filter.getUserId(), dateRange.start, dateRange.end);
+            aggregator.acceptTypeTotals(Type.REVENUE, 0, totals.revenue());
+            aggregator.acceptTypeTotals(Type.EXPENSE, 0, totals.expense());
+        } else if (aggregationMode == AggregationMode.DATABASE) {
+            aggregateInDatabase(aggregator, filter, dateRange, sections);
+        } else {
+            //Buscar atividades do período e agregar todas as seções em uma única passada
+            aggregateInMemory(aggregator, filter, dateRange);
         }
 
-        return DashboardResponseDTO.builder()
-                .financialSummary(buildFinancialSummary(activities, dateRange))
-                .expensesByCategory(buildCategoryDistribution(activities, Type.EXPENSE))
-                .revenuesByCategory(buildCategoryDistribution(activities, Type.REVENUE))
-                .monthlyEvolution(buildMonthlyEvolution(activities))
-                .quickStats(buildQuickStats(activities, dateRange))
-                .build();
+        return aggregator.toResponse(sections);
     }
 
     public CategorySummaryDTO getCategorySummary(String userId, Category category, String period) {
+        return getCategorySummary(userId, category, period, DEFAULT_RECENT_TRANSACTIONS);
+    }
+
+    public CategorySummaryDTO getCategorySummary(String userId, Category category, String period, int limit) {
+        DateRange dateRange = calculateDateRange(period);
+        int recentLimit = Math.max(1, Math.min(limit, MAX_RECENT_TRANSACTIONS));
+
+        DashboardCache.Key key = DashboardCache.Key.of(userId, "category-summary",
+                dateRange.start, dateRange.end, List.of(category), null, recentLimit);
+        return dashboardCache.get(key, () -> computeCategorySummary(userId, category, dateRange, recentLimit));
+    }
+
+    /**
+     * Resumo de uma categoria com duas consultas de custo fixo: a agregação (quantidade e soma)
+     * filtrada pela categoria e as N transações mais recentes via ORDER BY date DESC LIMIT N.
+     */
+    private CategorySummaryDTO computeCategorySummary(String userId, Category category, DateRange dateRange, int limit) {
         log.info("Generating category summary for user: {}, category: {}", userId, category);
 
         //Validar usuário
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        DateRange dateRange = calculateDateRange(period);
-        List<Activity> activities = getActivitiesInPeriod(userId, dateRange)
-                .stream()
-                .filter(activity -> activity.getCategory() == category)
-                .collect(Collectors.toList());
+        currentUserService.requireExisting(userId);
+
+        long transactionCount = 0;
+        long totalValue = 0;
+        for (ActivityMonthlyAggregate aggregate : activityRepository.aggregateByUserIdAndCategoryAndDateBetween(
+                userId, category, dateRange.startInstant(), dateRange.endInstant())) {
+            transactionCount += aggregate.count();
+            totalValue += aggregate.sum();
+        }
 
-        if (activities.isEmpty()) {
+        if (transactionCount == 0) {
             return CategorySummaryDTO.builder()
                     .categoryCode(category.name())
                     .categoryName(category.getDisplayName())
                     .emoji(category.getEmoji())
                     .color(category.getColor())
-                    .totalValue(0.0)
+                    .totalValue(Money.fromCents(0))
                     .percentage(0.0)
                     .transactionCount(0)
-                    .averageTransactionValue(0.0)
+                    .averageTransactionValue(Money.fromCents(0))
                     .recentTransactions(Collections.emptyList())
                     .build();
         }
 
-        Double totalValue = activities.stream()
-                .mapToDouble(Activity::getValue)
-                .sum();
-
-        List<CategorySummaryDTO.RecentTransaction> recentTransactions = activities.stream()
-                .sorted((a1, a2) -> a2.getDate().compareTo(a1.getDate()))
-                .limit(5)
+        List<CategorySummaryDTO.RecentTransaction> recentTransactions = activityRepository
+                .findRecentByUserIdAndCategoryAndDateBetween(
+                        userId, category, dateRange.startInstant(), dateRange.endInstant(), Limit.of(limit))
+                .stream()
                 .map(activity -> CategorySummaryDTO.RecentTransaction.builder()
-                        .id(activity.getId())
-                        .description(activity.getDescription())
-                        .value(activity.getValue())
-                        .date(formatDate(activity.getDate()))
+                        .id(activity.id())
+                        .description(activity.description())
+                        .value(activity.value())
+                        .date(formatDate(activity.date()))
                         .build())
                 .collect(Collectors.toList());
 
@@ -112,195 +188,135 @@ public class DashboardService {
                 .categoryName(category.getDisplayName())
                 .emoji(category.getEmoji())
                 .color(category.getColor())
-                .totalValue(totalValue)
+                .totalValue(Money.fromCents(totalValue))
                 .percentage(100.0) //Para uma categoria específica, é sempre 100%
-                .transactionCount(activities.size())
-                .averageTransactionValue(totalValue / activities.size())
+                .transactionCount((int) transactionCount)
+                .averageTransactionValue(Money.divide(totalValue, transactionCount))
                 .recentTransactions(recentTransactions)
                 .build();
     }
 
-    private DashboardResponseDTO.FinancialSummary buildFinancialSummary(
-            List<Activity> activities, DateRange dateRange) {
-
-        Double totalRevenues = activities.stream()
-                .filter(activity -> activity.getType() == Type.REVENUE)
-                .mapToDouble(Activity::getValue)
-                .sum();
-
-        Double totalExpenses = activities.stream()
-                .filter(activity -> activity.getType() == Type.EXPENSE)
-                .mapToDouble(Activity::getValue)
-                .sum();
-
-        Double currentBalance = totalRevenues - totalExpenses;
-
-        String balanceStatus;
-        if (currentBalance > 0) {
-            balanceStatus = "POSITIVE";
-        } else if (currentBalance < 0) {
-            balanceStatus = "NEGATIVE";
-        } else {
-            balanceStatus = "NEUTRAL";
-        }
+    public PeriodComparisonDTO comparePeriods(DashboardFilterDTO filter) {
+        DateRange current = calculateDateRange(filter);
+        DateRange previous = previousDateRange(filter, current);
 
-        return DashboardResponseDTO.FinancialSummary.builder()
-                .totalRevenues(totalRevenues)
-                .totalExpenses(totalExpenses)
-                .currentBalance(currentBalance)
-                .monthlyBalance(currentBalance) //Por simplicidade, considerando o mesmo valor
-                .balanceStatus(balanceStatus)
-                .periodStart(dateRange.start)
-                .periodEnd(dateRange.end)
-                .build();
+        DashboardCache.Key key = DashboardCache.Key.of(filter.getUserId(), "compare",
+                current.start, current.end, null, null, previous.start);
+        return dashboardCache.get(key, () -> computeComparison(filter.getUserId(), current, previous));
     }
 
-    private List<DashboardResponseDTO.CategoryDistribution> buildCategoryDistribution(
-            List<Activity> activities, Type type) {
-
-        List<Activity> filteredActivities = activities.stream()
-                .filter(activity -> activity.getType() == type)
-                .collect(Collectors.toList());
+    /**
+     * Os dois períodos são contíguos: uma única consulta cobre de previous.start a current.end
+     * e a separação entre eles é feita no GROUP BY (date >= current.start).
+     */
+    private PeriodComparisonDTO computeComparison(String userId, DateRange current, DateRange previous) {
+        log.info("Generating period comparison for user: {}, current: {} - {}, previous: {} - {}",
+                userId, current.start, current.end, previous.start, previous.end);
 
-        if (filteredActivities.isEmpty()) {
-            return Collections.emptyList();
+        //Validar se o usuário existe
+        currentUserService.requireExisting(userId);
+
+        Type[] types = Type.values();
+        Category[] categories = Category.values();
+        //[0] = período anterior, [1] = período atual
+        long[][][] sums = new long[2][types.length][categories.length];
+        long[][][] counts = new long[2][types.length][categories.length];
+
+        for (ActivityPeriodAggregate row : activityRepository.aggregateByPeriodAndUserIdAndDateBetween(
+                userId, previous.startInstant(), current.startInstant(), current.endInstant())) {
+            int period = row.isCurrent() ? 1 : 0;
+            sums[period][row.type().ordinal()][row.category().ordinal()] += row.sum();
+            counts[period][row.type().ordinal()][row.category().ordinal()] += row.count();
         }
 
-        Double totalValue = filteredActivities.stream()
-                .mapToDouble(Activity::getValue)
-                .sum();
-
-        Map<Category, List<Activity>> groupedByCategory = filteredActivities.stream()
-                .collect(Collectors.groupingBy(Activity::getCategory));
-
-        return groupedByCategory.entrySet().stream()
-                .map(entry -> {
-                    Category category = entry.getKey();
-                    List<Activity> categoryActivities = entry.getValue();
-
-                    Double categoryTotal = categoryActivities.stream()
-                            .mapToDouble(Activity::getValue)
-                            .sum();
-
-                    Double percentage = (categoryTotal / totalValue) * 100;
-
-                    return DashboardResponseDTO.CategoryDistribution.builder()
-                            .categoryCode(category.name())
-                            .categoryName(category.getDisplayName())
-                            .emoji(category.getEmoji())
-                            .color(category.getColor())
-                            .totalValue(categoryTotal)
-                            .percentage(percentage)
-                            .transactionCount(categoryActivities.size())
-                            .build();
-                })
-                .sorted((c1, c2) -> Double.compare(c2.getTotalValue(), c1.getTotalValue()))
-                .collect(Collectors.toList());
-    }
+        List<PeriodComparisonDTO.TypeComparison> typeComparisons = new ArrayList<>(types.length);
+        List<PeriodComparisonDTO.CategoryComparison> categoryComparisons = new ArrayList<>();
+        long[] balance = new long[2];
+
+        for (Type type : types) {
+            long[] typeSum = new long[2];
+            long[] typeCount = new long[2];
+            for (Category category : categories) {
+                long previousValue = sums[0][type.ordinal()][category.ordinal()];
+                long currentValue = sums[1][type.ordinal()][category.ordinal()];
+                long previousCount = counts[0][type.ordinal()][category.ordinal()];
+                long currentCount = counts[1][type.ordinal()][category.ordinal()];
+                typeSum[0] += previousValue;
+                typeSum[1] += currentValue;
+                typeCount[0] += previousCount;
+                typeCount[1] += currentCount;
+
+                if (previousCount == 0 && currentCount == 0) {
+                    continue;
+                }
+                categoryComparisons.add(PeriodComparisonDTO.CategoryComparison.builder()
+                        .categoryCode(category.name())
+                        .categoryName(category.getDisplayName())
+                        .emoji(category.getEmoji())
+                        .color(category.getColor())
+                        .type(type.name())
+                        .value(compare(currentValue, previousValue))
+                        .currentTransactions((int) currentCount)
+                        .previousTransactions((int) previousCount)
+                        .build());
+            }
 
-    private List<DashboardResponseDTO.MonthlyEvolution> buildMonthlyEvolution(List<Activity> activities) {
-        Map<String, List<Activity>> groupedByMonth = activities.stream()
-                .collect(Collectors.groupingBy(activity -> {
-                    LocalDate date = activity.getDate().atZone(ZoneId.systemDefault()).toLocalDate();
-                    return date.getYear() + "-" + String.format("%02d", date.getMonthValue());
-                }));
-
-        return groupedByMonth.entrySet().stream()
-                .map(entry -> {
-                    String[] yearMonth = entry.getKey().split("-");
-                    Integer year = Integer.parseInt(yearMonth[0]);
-                    Integer month = Integer.parseInt(yearMonth[1]);
-
-                    List<Activity> monthActivities = entry.getValue();
-
-                    Double revenues = monthActivities.stream()
-                            .filter(activity -> activity.getType() == Type.REVENUE)
-                            .mapToDouble(Activity::getValue)
-                            .sum();
-
-                    Double expenses = monthActivities.stream()
-                            .filter(activity -> activity.getType() == Type.EXPENSE)
-                            .mapToDouble(Activity::getValue)
-                            .sum();
-
-                    return DashboardResponseDTO.MonthlyEvolution.builder()
-                            .month(String.format("%02d", month))
-                            .year(year)
-                            .revenues(revenues)
-                            .expenses(expenses)
-                            .balance(revenues - expenses)
-                            .periodLabel(String.format("%02d/%d", month, year))
-                            .build();
-                })
-                .sorted((m1, m2) -> {
-                    int yearCompare = m1.getYear().compareTo(m2.getYear());
-                    if (yearCompare != 0) return yearCompare;
-                    return m1.getMonth().compareTo(m2.getMonth());
-                })
-                .collect(Collectors.toList());
-    }
+            typeComparisons.add(PeriodComparisonDTO.TypeComparison.builder()
+                    .type(type.name())
+                    .value(compare(typeSum[1], typeSum[0]))
+                    .currentTransactions((int) typeCount[1])
+                    .previousTransactions((int) typeCount[0])
+                    .build());
 
-    private DashboardResponseDTO.QuickStats buildQuickStats(List<Activity> activities, DateRange dateRange) {
-        if (activities.isEmpty()) {
-            return DashboardResponseDTO.QuickStats.builder()
-                    .totalTransactions(0)
-                    .averageExpense(0.0)
-                    .averageRevenue(0.0)
-                    .topExpenseCategory("")
-                    .topRevenueCategory("")
-                    .daysWithTransactions(0)
-                    .dailyAverageSpending(0.0)
-                    .build();
+            long sign = type == Type.REVENUE ? 1 : -1;
+            balance[0] += sign * typeSum[0];
+            balance[1] += sign * typeSum[1];
         }
 
-        List<Activity> expenses = activities.stream()
-                .filter(activity -> activity.getType() == Type.EXPENSE)
-                .collect(Collectors.toList());
-
-        List<Activity> revenues = activities.stream()
-                .filter(activity -> activity.getType() == Type.REVENUE)
-                .collect(Collectors.toList());
-
-        Double averageExpense = expenses.isEmpty() ? 0.0 :
-                expenses.stream().mapToDouble(Activity::getValue).average().orElse(0.0);
-
-        Double averageRevenue = revenues.isEmpty() ? 0.0 :
-                revenues.stream().mapToDouble(Activity::getValue).average().orElse(0.0);
-
-        String topExpenseCategory = getTopCategory(expenses);
-        String topRevenueCategory = getTopCategory(revenues);
-
-        Set<LocalDate> uniqueDates = activities.stream()
-                .map(activity -> activity.getDate().atZone(ZoneId.systemDefault()).toLocalDate())
-                .collect(Collectors.toSet());
-
-        long daysBetween = ChronoUnit.DAYS.between(dateRange.start, dateRange.end) + 1;
-        Double totalExpenseValue = expenses.stream().mapToDouble(Activity::getValue).sum();
-        Double dailyAverageSpending = daysBetween > 0 ? totalExpenseValue / daysBetween : 0.0;
+        //Maiores variações absolutas primeiro
+        categoryComparisons.sort(Comparator.comparing(
+                (PeriodComparisonDTO.CategoryComparison comparison) -> comparison.getValue().getDifference().abs())
+                .reversed());
+
+        return PeriodComparisonDTO.builder()
+                .currentStart(current.start)
+                .currentEnd(current.end)
+                .previousStart(previous.start)
+                .previousEnd(previous.end)
+                .balance(compare(balance[1], balance[0]))
+                .types(typeComparisons)
+                .categories(categoryComparisons)
+                .build();
+    }
 
-        return DashboardResponseDTO.QuickStats.builder()
-                .totalTransactions(activities.size())
-                .averageExpense(averageExpense)
-                .averageRevenue(averageRevenue)
-                .topExpenseCategory(topExpenseCategory)
-                .topRevenueCategory(topRevenueCategory)
-                .daysWithTransactions(uniqueDates.size())
-                .dailyAverageSpending(dailyAverageSpending)
+    private PeriodComparisonDTO.Comparison compare(long current, long previous) {
+        return PeriodComparisonDTO.Comparison.builder()
+                .current(Money.fromCents(current))
+                .previous(Money.fromCents(previous))
+                .difference(Money.fromCents(current - previous))
+                .percentageChange(previous != 0 ? Money.percentage(current - previous, Math.abs(previous)) : null)
                 .build();
     }
 
-    private String getTopCategory(List<Activity> activities) {
-        if (activities.isEmpty()) return "";
+    // Período equivalente imediatamente anterior ao atual
+    private DateRange previousDateRange(DashboardFilterDTO filter, DateRange current) {
+        boolean custom = filter.getStartDate() != null && filter.getEndDate() != null;
+        String period = custom || filter.getPeriod() == null ? "CUSTOM" : filter.getPeriod();
 
-        return activities.stream()
-                .collect(Collectors.groupingBy(
-                        Activity::getCategory,
-                        Collectors.summingDouble(Activity::getValue)))
-                .entrySet()
-                .stream()
-                .max(Map.Entry.comparingByValue())
-                .map(entry -> entry.getKey().getDisplayName())
-                .orElse("");
+        return switch (period) {
+            case "CURRENT_MONTH", "LAST_MONTH" -> {
+                LocalDate firstDay = current.start.minusMonths(1).withDayOfMonth(1);
+                yield new DateRange(firstDay, firstDay.withDayOfMonth(firstDay.lengthOfMonth()));
+            }
+            case "CURRENT_YEAR" -> {
+                LocalDate firstDay = current.start.minusYears(1).withDayOfYear(1);
+                yield new DateRange(firstDay, firstDay.withDayOfYear(firstDay.lengthOfYear()));
+            }
+            default -> {
+                long days = ChronoUnit.DAYS.between(current.start, current.end) + 1;
+                yield new DateRange(current.start.minusDays(days), current.start.minusDays(1));
+            }
+        };
     }
 
     private DateRange calculateDateRange(DashboardFilterDTO filter) {
@@ -332,11 +348,153 @@ public class DashboardService {
         };
     }
 
-    private List<Activity> getActivitiesInPeriod(String userId, DateRange dateRange) {
-        Instant startInstant = dateRange.start.atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant endInstant = dateRange.end.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant();
+    // Categorias e tipo do filtro são aplicados no SQL, não em memória
+    private List<Activity> getActivitiesInPeriod(DashboardFilterDTO filter, DateRange dateRange) {
+        return activityRepository.findAll(ActivityFilter.builder()
+                .userId(filter.getUserId())
+                .types(filter.getType() != null ? List.of(filter.getType()) : null)
+                .categories(filter.getCategories())
+                .startDate(dateRange.startInstant())
+                .endDate(dateRange.endInstant())
+                .build());
+    }
+
+    private void aggregateInDatabase(DashboardAggregator aggregator, DashboardFilterDTO filter, DateRange dateRange,
+                                     Set<DashboardSection> sections) {
+        Callable<Void> buckets = () -> {
+            aggregateBuckets(aggregator, filter, dateRange, sections);
+            return null;
+        };
+
+        if (!sections.contains(DashboardSection.QUICK_STATS)) {
+            invokeAll(List.of(buckets), false);
+            return;
+        }
+
+        //A contagem de dias é uma consulta independente: em períodos longos roda em paralelo com a agregação
+        Callable<Long> days = () -> countDaysWithTransactions(filter, dateRange);
+        List<Object> results = invokeAll(List.of(buckets, days), isParallel(dateRange));
+        aggregator.setDaysWithTransactions((Long) results.get(1));
+    }
+
+    private void aggregateBuckets(DashboardAggregator aggregator, DashboardFilterDTO filter, DateRange dateRange,
+                                  Set<DashboardSection> sections) {
+        Instant startInstant = dateRange.startInstant();
+        Instant endInstant = dateRange.endInstant();
+
+        if (!sections.contains(DashboardSection.MONTHLY_EVOLUTION)) {
+            //Sem evolução mensal basta agrupar por tipo e categoria
+            aggregator.acceptAggregates(activityRepository.aggregateByCategoryAndUserIdAndDateBetween(
+                    filter.getUserId(), startInstant, endInstant));
+        } else if (rollupService.isEnabled() && dateRange.coversWholeMonths()) {
+            //Períodos alinhados a meses inteiros são lidos do rollup mensal
+            List<ActivityMonthlyRollup> rollups = rollupRepository.findByUserIdAndYearMonthBetween(
+                    filter.getUserId(),
+                    ActivityRollupService.yearMonth(dateRange.start),
+                    ActivityRollupService.yearMonth(dateRange.end));
+            for (ActivityMonthlyRollup rollup : rollups) {
+                aggregator.acceptBucket(
+                        rollup.getId().getType(),
+                        rollup.getId().getCategory(),
+                        rollup.getYear() * 12 + rollup.getMonth() - 1,
+                        rollup.getTransactionCount(),
+                        rollup.getTotalCents());
+            }
+        } else {
+            aggregator.acceptAggregates(activityRepository.aggregateByUserIdAndDateBetween(
+                    filter.getUserId(), startInstant, endInstant));
+        }
+    }
+
+    private long countDaysWithTransactions(DashboardFilterDTO filter, DateRange dateRange) {
+        Instant startInstant = dateRange.startInstant();
+        Instant endInstant = dateRange.endInstant();
+
+        boolean hasCategoryFilter = filter.getCategories() != null && !filter.getCategories().isEmpty();
+        if (!hasCategoryFilter && filter.getType() == null) {
+            return activityRepository.countDistinctDaysByUserIdAndDateBetween(
+                    filter.getUserId(), startInstant, endInstant);
+        }
+        return activityRepository.countDistinctDaysByUserIdAndDateBetween(
+                filter.getUserId(), startInstant, endInstant,
+                filter.getType() != null ? List.of(filter.getType()) : List.of(Type.values()),
+                hasCategoryFilter ? filter.getCategories() : List.of(Category.values()));
+    }
+
+    // Modo MEMORY: acima do limite de linhas, cada bloco é agregado em uma virtual thread e os resultados são mesclados
+    private void aggregateInMemory(DashboardAggregator aggregator, DashboardFilterDTO filter, DateRange dateRange) {
+        List<Activity> activities = getActivitiesInPeriod(filter, dateRange);
+        if (!parallelEnabled || activities.size() < parallelMinRows) {
+            aggregator.acceptAll(activities);
+            return;
+        }
+
+        int chunks = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors(),
+                activities.size() / Math.max(1, parallelMinRows / 2)));
+        int chunkSize = (activities.size() + chunks - 1) / chunks;
+        List<Callable<DashboardAggregator>> tasks = new ArrayList<>();
+        for (int from = 0; from < activities.size(); from += chunkSize) {
+            List<Activity> chunk = activities.subList(from, Math.min(activities.size(), from + chunkSize));
+            tasks.add(() -> {
+                //As linhas já chegam filtradas pelo SQL
+                DashboardAggregator partial = new DashboardAggregator(dateRange.start, dateRange.end, ZoneId.systemDefault());
+                partial.acceptAll(chunk);
+                return partial;
+            });
+        }
+        for (DashboardAggregator partial : invokeAll(tasks, true)) {
+            aggregator.merge(partial);
+        }
+    }
+
+    private boolean isParallel(DateRange dateRange) {
+        return parallelEnabled && ChronoUnit.DAYS.between(dateRange.start, dateRange.end) + 1 >= parallelMinDays;
+    }
+
+    /**
+     * Executa as tarefas em virtual threads (ou em sequência na thread atual quando parallel = false).
+     * Se uma tarefa falhar ou a thread da requisição for interrompida, as demais são canceladas
+     * antes de retornar - nenhuma tarefa sobrevive ao método. A desconexão do cliente não é
+     * detectada: o Tomcat não interrompe a thread da requisição, então as tarefas terminam
+     * normalmente nesse caso.
+     */
+    private <T> List<T> invokeAll(List<? extends Callable<? extends T>> tasks, boolean parallel) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (!parallel || tasks.size() == 1) {
+            for (Callable<? extends T> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return results;
+        }
 
-        return activityRepository.findByUserIdAndDateBetween(userId, startInstant, endInstant);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<? extends T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<? extends T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            try {
+                for (Future<? extends T> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Dashboard computation interrupted", e);
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return results;
     }
 
     private String formatDate(Instant instant) {
@@ -352,5 +510,24 @@ public class DashboardService {
             this.start = start;
             this.end = end;
         }
+
+        Instant startInstant() {
+            return start.atStartOfDay(ZoneId.systemDefault()).toInstant();
+        }
+
+        Instant endInstant() {
+            return end.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant();
+        }
+
+        // Começa no dia 1 e termina no último dia do mês (ou hoje - não há atividades futuras)
+        boolean coversWholeMonths() {
+            return start.getDayOfMonth() == 1
+                    && (end.getDayOfMonth() == end.lengthOfMonth() || !end.isBefore(LocalDate.now()));
+        }
+    }
+
+    public enum AggregationMode {
+        DATABASE,
+        MEMORY
     }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.export.ExportFormat;
+import com.example.finance_control.domain.export.ExportJob;
+import com.example.finance_control.exceptions.DomainException;
+import com.example.finance_control.exceptions.ExportLimitException;
+import com.example.finance_control.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa as exportações (CSV/PDF) em segundo plano. Os jobs rodam em um pool de tamanho fixo
+ * com fila limitada, cada usuário tem um número máximo de jobs ativos e os arquivos gerados são
+ * apagados depois do TTL. O download é servido direto do disco.
+ */
+@Service
+@Slf4j
+public class ExportJobService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String FILE_PREFIX = "activities-";
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    // Mensagem devolvida ao cliente; o detalhe da exceção (SQL, caminhos) fica só no log
+    private static final String FAILURE_MESSAGE = "The export could not be generated, try again later.";
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Value("${exports.directory:${java.io.tmpdir}/finance-control-exports}")
+    private Path directory;
+
+    @Value("${exports.max-active-per-user:2}")
+    private int maxActivePerUser;
+
+    @Value("${exports.ttl:1h}")
+    private Duration ttl;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobService(@Value("${exports.worker-threads:2}") int workerThreads,
+                            @Value("${exports.queue-capacity:50}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /*
+     * Os jobs ficam só em memória: arquivos de uma execução anterior não têm mais dono. Só são
+     * apagados os arquivos com os nomes que este serviço gera, já que exports.directory pode
+     * apontar para um diretório compartilhado (/tmp, um volume montado).
+     */
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, ExportJobService::isExportFile)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // activities-<uuid>.<extensão>, com ou sem o sufixo .part do arquivo em geração
+    static boolean isExportFile(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(PARTIAL_SUFFIX)) {
+            name = name.substring(0, name.length() - PARTIAL_SUFFIX.length());
+        }
+        if (!name.startsWith(FILE_PREFIX) || !Files.isRegularFile(file)) {
+            return false;
+        }
+        for (ExportFormat format : ExportFormat.values()) {
+            String extension = "." + format.getExtension();
+            if (name.endsWith(extension)) {
+                return isUuid(name.substring(FILE_PREFIX.length(), name.length() - extension.length()));
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUuid(String text) {
+        try {
+            return UUID.fromString(text).toString().equals(text);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ExportJob submit(String userId, ExportFormat format) {
+        currentUserService.requireExisting(userId);
+
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), userId, format, Instant.now());
+        // Contagem e registro sob o mesmo lock para que requisições simultâneas não passem do limite
+        synchronized (jobs) {
+            long active = jobs.values().stream()
+                    .filter(existing -> existing.getUserId().equals(userId) && existing.getStatus().isActive())
+                    .count();
+            if (active >= maxActivePerUser) {
+                throw new ExportLimitException("At most " + maxActivePerUser + " exports can run at the same time per user.");
+            }
+            jobs.put(job.getId(), job);
+        }
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new ExportLimitException("The export queue is full, try again later.");
+        }
+        return job;
+    }
+
+    public ExportJob getJob(String jobId, String userId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Export not found");
+        }
+        return job;
+    }
+
+    // Arquivo de um job concluído; o job continua disponível até expirar
+    public ExportJob getCompletedJob(String jobId, String userId) {
+        ExportJob job = getJob(jobId, userId);
+        switch (job.getStatus()) {
+            case PENDING, RUNNING -> throw new DomainException("Export is not finished yet.");
+            case FAILED -> throw new DomainException("Export failed: " + job.getError());
+            default -> {
+            }
+        }
+        if (!Files.exists(job.getFile())) {
+            throw new ResourceNotFoundException("Export file has expired");
+        }
+        return job;
+    }
+
+    private void run(ExportJob job) {
+        job.running();
+        Path partial = directory.resolve(job.fileName() + PARTIAL_SUFFIX);
+        Path target = directory.resolve(job.fileName());
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partial), BUFFER_SIZE)) {
+                exportService.write(job.getUserId(), job.getFormat(), outputStream);
+            }
+            // O arquivo só aparece com o nome final quando está completo
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Instant now = Instant.now();
+            job.completed(target, Files.size(target), now, now.plus(ttl));
+            log.info("Export {} ({}) finished for user {}: {} bytes", job.getId(), job.getFormat(), job.getUserId(), job.getSizeBytes());
+        } catch (Exception e) {
+            log.error("Export {} failed for user {}", job.getId(), job.getUserId(), e);
+            deleteQuietly(partial);
+            Instant now = Instant.now();
+            job.failed(FAILURE_MESSAGE, now, now.plus(ttl));
+        }
+    }
+
+    // Remove os jobs expirados e seus arquivos
+    @Scheduled(fixedDelayString = "${exports.cleanup-interval:PT5M}")
+    public void cleanup() {
+        Instant now = Instant.now();
+        int removed = 0;
+        for (ExportJob job : jobs.values()) {
+            if (job.getExpiresAt() != null && job.getExpiresAt().isBefore(now)) {
+                jobs.remove(job.getId());
+                if (job.getFile() != null) {
+                    deleteQuietly(job.getFile());
+                }
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} expired export jobs", removed);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}", file, e);
+        }
+    }
+}
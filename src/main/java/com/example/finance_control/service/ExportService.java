@@ -1,83 +1,402 @@
 package com.example.finance_control.service;
 
-import com.example.finance_control.domain.activity.Activity;
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.export.ExportFormat;
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.repository.activity.ActivityExportRow;
+import com.example.finance_control.repository.activity.ActivityFilter;
 import com.example.finance_control.repository.activity.ActivityRepository;
-import com.example.finance_control.utils.FormatDateTime;
+import com.example.finance_control.utils.EpochDates;
+import com.example.finance_control.utils.Money;
+import com.itextpdf.text.BaseColor;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
 import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 import jakarta.servlet.http.HttpServletResponse;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Locale;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class ExportService {
 
+    private static final ZoneRules BRAZIL_ZONE_RULES = ZoneId.of("America/Sao_Paulo").getRules();
+    private static final int PDF_CHUNK_ROWS = 500;
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+    private static final int XLSX_WINDOW_ROWS = 100;
+    // 1970-01-01 no sistema de datas do Excel
+    private static final double EXCEL_EPOCH_OFFSET_DAYS = 25_569;
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+    private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 8, Font.BOLD);
+    private static final Font SUBTOTAL_FONT = new Font(Font.FontFamily.HELVETICA, 8, Font.BOLD);
+    private static final Font BODY_FONT = new Font(Font.FontFamily.HELVETICA, 8);
+
     @Autowired
     private ActivityRepository activityRepository;
 
-    @Autowired
-    private ActivityService activityService;
+    @Value("${activities.stream.fetch-size:500}")
+    private int fetchSize;
 
+    /**
+     * Exporta todo o histórico em uma única leitura com cursor (fetch size configurável): cada
+     * linha é montada em um StringBuilder reaproveitado, com valor e data formatados à mão, e o
+     * saldo final é acumulado na mesma passada. A memória usada não depende do número de linhas.
+     */
+    @Transactional(readOnly = true)
     public void writeActivitiesToCsv(String userId, HttpServletResponse response) throws IOException {
-        List<Activity> activities = activityRepository.findByUserId(userId);
+        response.setContentType(ExportFormat.CSV.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=activities." + ExportFormat.CSV.getExtension());
+        writeCsv(userId, response.getOutputStream());
+    }
+
+    @Transactional(readOnly = true)
+    public void writeActivities(String userId, ExportFormat format, HttpServletResponse response)
+            throws IOException, DocumentException {
+        response.setContentType(format.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=activities." + format.getExtension());
+        write(userId, format, response.getOutputStream());
+    }
+
+    // Escreve o relatório no formato pedido; usado pelos endpoints síncronos e pelos jobs de exportação
+    @Transactional(readOnly = true)
+    public void write(String userId, ExportFormat format, OutputStream outputStream) throws IOException, DocumentException {
+        switch (format) {
+            case CSV -> writeCsv(userId, outputStream);
+            case CSV_GZ -> writeCsvGz(userId, outputStream);
+            case PDF -> writePdf(userId, outputStream);
+            case XLSX -> writeXlsx(userId, outputStream);
+        }
+    }
 
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=activities.csv");
+    // Mesmo CSV, comprimido enquanto é escrito; finish() fecha o gzip sem fechar o stream de saída
+    private void writeCsvGz(String userId, OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(outputStream, CSV_BUFFER_SIZE);
+        writeCsv(userId, gzip);
+        gzip.finish();
+    }
 
-        PrintWriter writer = response.getWriter();
+    private void writeCsv(String userId, OutputStream outputStream) throws IOException {
+        PrintWriter writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), CSV_BUFFER_SIZE));
         writer.println("Descrição;Tipo;Categoria;Quantia;Data e Hora");
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm").withLocale(Locale.forLanguageTag("pt-BR"));
+        char decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+        StringBuilder line = new StringBuilder(128);
 
-        for (Activity activity : activities) {
-            writer.println(String.format("%s;%s;%s;%.2f;%s",
-                    activity.getDescription(),
-                    activity.getType(),
-                    activity.getCategory(),
-                    activity.getValue(),
-                    FormatDateTime.formatDate(activity.getDate())
-            ));
-    }
-        double saldoFinal = activityService.calculateBalance(userId);
+        long saldoFinal = 0L;
+        try (Stream<ActivityExportRow> rows = activityRepository.streamExportRows(
+                ActivityFilter.builder().userId(userId).build(), fetchSize)) {
+            Iterator<ActivityExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ActivityExportRow row = iterator.next();
+                saldoFinal += row.type() == Type.REVENUE ? row.valueCents() : -row.valueCents();
+
+                line.setLength(0);
+                appendCsvText(line, row.description());
+                line.append(';').append(row.type().name())
+                        .append(';').append(row.category().name())
+                        .append(';');
+                Money.appendCents(line, row.valueCents(), decimalSeparator);
+                line.append(';');
+                EpochDates.appendDateTime(line, row.date(), BRAZIL_ZONE_RULES);
+                line.append(System.lineSeparator());
+                writer.append(line);
+            }
+        }
+
+        line.setLength(0);
+        line.append("Saldo Final;");
+        Money.appendCents(line, saldoFinal, decimalSeparator);
+        line.append(';');
         writer.println();
-        writer.println(String.format("Saldo Final;%.2f;", saldoFinal));
-}
+        writer.println(line);
+        // PrintWriter não lança IOException; checkError também faz o flush
+        if (writer.checkError()) {
+            throw new IOException("Failed to write CSV export");
+        }
+    }
 
-    public void writeActivitiesToPdf(String userId, HttpServletResponse response) throws IOException, DocumentException {
-        List<Activity> activities = activityRepository.findByUserId(userId);
+    // Descrições com ';' ou aspas vão entre aspas, como o importador espera
+    private void appendCsvText(StringBuilder target, String text) {
+        if (text.indexOf(';') < 0 && text.indexOf('"') < 0) {
+            target.append(text);
+            return;
+        }
+        target.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                target.append('"');
+            }
+            target.append(c);
+        }
+        target.append('"');
+    }
 
-        response.setContentType("application/pdf");
-        response.setHeader("Content-Disposition", "attachment; filename=activities.pdf");
+    /**
+     * Relatório em PDF a partir da mesma leitura com cursor da exportação CSV. As atividades vão
+     * para uma única PdfPTable incompleta, enviada ao documento a cada PDF_CHUNK_ROWS linhas (o
+     * iText escreve e descarta as linhas já renderizadas). Subtotais por mês, resumo por categoria
+     * e saldo final são acumulados na mesma passada.
+     */
+    @Transactional(readOnly = true)
+    public void writeActivitiesToPdf(String userId, HttpServletResponse response) throws IOException, DocumentException {
+        response.setContentType(ExportFormat.PDF.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=activities." + ExportFormat.PDF.getExtension());
+        writePdf(userId, response.getOutputStream());
+    }
 
-        Document document = new Document();
-        PdfWriter.getInstance(document, response.getOutputStream());
+    private void writePdf(String userId, OutputStream outputStream) throws DocumentException {
+        Document document = new Document(PageSize.A4, 36, 36, 36, 36);
+        PdfWriter pdfWriter = PdfWriter.getInstance(document, outputStream);
+        pdfWriter.setFullCompression();
         document.open();
 
-        document.add(new Paragraph("Reporte de Atividades"));
+        document.add(new Paragraph("Reporte de Atividades", TITLE_FONT));
+        document.add(new Paragraph(" "));
+
+        PdfPTable table = new PdfPTable(new float[]{2.2f, 5f, 1.4f, 2.6f, 1.8f});
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        addCell(table, "Data", HEADER_FONT, Element.ALIGN_LEFT);
+        addCell(table, "Descrição", HEADER_FONT, Element.ALIGN_LEFT);
+        addCell(table, "Tipo", HEADER_FONT, Element.ALIGN_LEFT);
+        addCell(table, "Categoria", HEADER_FONT, Element.ALIGN_LEFT);
+        addCell(table, "Valor (R$)", HEADER_FONT, Element.ALIGN_RIGHT);
+
+        char decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+        StringBuilder text = new StringBuilder(64);
+        // Por categoria: [quantidade, total em centavos]
+        Map<Category, long[]> categoryTotals = new EnumMap<>(Category.class);
+
+        long saldoFinal = 0L;
+        int currentMonth = Integer.MIN_VALUE;
+        long monthRevenue = 0L;
+        long monthExpense = 0L;
+        int pendingRows = 0;
+
+        try (Stream<ActivityExportRow> rows = activityRepository.streamExportRows(
+                ActivityFilter.builder().userId(userId).build(), fetchSize)) {
+            Iterator<ActivityExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ActivityExportRow row = iterator.next();
+
+                int month = EpochDates.epochMonth(EpochDates.epochDay(row.date(), BRAZIL_ZONE_RULES));
+                if (month != currentMonth) {
+                    if (currentMonth != Integer.MIN_VALUE) {
+                        addMonthSubtotal(table, text, currentMonth, monthRevenue, monthExpense, decimalSeparator);
+                    }
+                    currentMonth = month;
+                    monthRevenue = 0L;
+                    monthExpense = 0L;
+                }
+
+                if (row.type() == Type.REVENUE) {
+                    monthRevenue += row.valueCents();
+                    saldoFinal += row.valueCents();
+                } else {
+                    monthExpense += row.valueCents();
+                    saldoFinal -= row.valueCents();
+                }
+                long[] categoryTotal = categoryTotals.computeIfAbsent(row.category(), category -> new long[2]);
+                categoryTotal[0]++;
+                categoryTotal[1] += row.valueCents();
+
+                text.setLength(0);
+                EpochDates.appendDateTime(text, row.date(), BRAZIL_ZONE_RULES);
+                addCell(table, text.toString(), BODY_FONT, Element.ALIGN_LEFT);
+                addCell(table, row.description(), BODY_FONT, Element.ALIGN_LEFT);
+                addCell(table, typeLabel(row.type()), BODY_FONT, Element.ALIGN_LEFT);
+                addCell(table, row.category().getDisplayName(), BODY_FONT, Element.ALIGN_LEFT);
+                addCell(table, cents(text, row.valueCents(), decimalSeparator), BODY_FONT, Element.ALIGN_RIGHT);
+
+                // Renderiza as linhas acumuladas e libera a memória da tabela
+                if (++pendingRows >= PDF_CHUNK_ROWS) {
+                    document.add(table);
+                    pendingRows = 0;
+                }
+            }
+        }
+        if (currentMonth != Integer.MIN_VALUE) {
+            addMonthSubtotal(table, text, currentMonth, monthRevenue, monthExpense, decimalSeparator);
+        }
+        table.setComplete(true);
+        document.add(table);
+
+        document.add(new Paragraph(" "));
+        document.add(new Paragraph("Resumo por Categoria", TITLE_FONT));
         document.add(new Paragraph(" "));
 
-        for (Activity activity : activities) {
-            document.add(new Paragraph(
-                    "Descrição: " + activity.getDescription() + "\n" +
-                    "Tipo: " + activity.getType() + "\n" +
-                            "Categoria: " + activity.getCategory()+ "\n" +
-                    "Valor: R$ " + String.format("%.2f",activity.getValue()) + "\n" +
-                    "Data: " + FormatDateTime.formatDate(activity.getDate()) + "\n"
-                    ));
-            document.add(new Paragraph(" "));
+        PdfPTable summary = new PdfPTable(new float[]{4f, 2f, 1.4f, 2.4f});
+        summary.setWidthPercentage(70);
+        summary.setHorizontalAlignment(Element.ALIGN_LEFT);
+        summary.setHeaderRows(1);
+        addCell(summary, "Categoria", HEADER_FONT, Element.ALIGN_LEFT);
+        addCell(summary, "Tipo", HEADER_FONT, Element.ALIGN_LEFT);
+        addCell(summary, "Qtd.", HEADER_FONT, Element.ALIGN_RIGHT);
+        addCell(summary, "Total (R$)", HEADER_FONT, Element.ALIGN_RIGHT);
+        for (Map.Entry<Category, long[]> entry : categoryTotals.entrySet()) {
+            Category category = entry.getKey();
+            addCell(summary, category.getDisplayName(), BODY_FONT, Element.ALIGN_LEFT);
+            addCell(summary, typeLabel(category.isRevenueCategory() ? Type.REVENUE : Type.EXPENSE), BODY_FONT, Element.ALIGN_LEFT);
+            addCell(summary, Long.toString(entry.getValue()[0]), BODY_FONT, Element.ALIGN_RIGHT);
+            addCell(summary, cents(text, entry.getValue()[1], decimalSeparator), BODY_FONT, Element.ALIGN_RIGHT);
         }
+        document.add(summary);
 
-        double saldoFinal = activityService.calculateBalance(userId);
         document.add(new Paragraph(" "));
-        document.add(new Paragraph(String.format("Saldo Final: R$ %.2f", saldoFinal)));
+        text.setLength(0);
+        text.append("Saldo Final: R$ ");
+        Money.appendCents(text, saldoFinal, decimalSeparator);
+        document.add(new Paragraph(text.toString(), TITLE_FONT));
 
         document.close();
     }
+
+    /**
+     * Planilha XLSX com o SXSSFWorkbook do POI: só as últimas XLSX_WINDOW_ROWS linhas ficam em
+     * memória, as anteriores vão para um arquivo temporário comprimido. Valores e datas são
+     * células numéricas com formato, então a planilha não depende do separador decimal do leitor.
+     */
+    private void writeXlsx(String userId, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_WINDOW_ROWS);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Atividades");
+            sheet.createFreezePane(0, 1);
+            sheet.setColumnWidth(0, 18 * 256);
+            sheet.setColumnWidth(1, 45 * 256);
+            sheet.setColumnWidth(2, 10 * 256);
+            sheet.setColumnWidth(3, 22 * 256);
+            sheet.setColumnWidth(4, 14 * 256);
+
+            DataFormat dataFormat = workbook.createDataFormat();
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(dataFormat.getFormat("dd/mm/yyyy hh:mm"));
+            CellStyle valueStyle = workbook.createCellStyle();
+            valueStyle.setDataFormat(dataFormat.getFormat("#,##0.00"));
+            CellStyle headerStyle = workbook.createCellStyle();
+            org.apache.poi.ss.usermodel.Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+
+            Row header = sheet.createRow(0);
+            String[] titles = {"Data e Hora", "Descrição", "Tipo", "Categoria", "Quantia"};
+            for (int i = 0; i < titles.length; i++) {
+                Cell cell = header.createCell(i);
+                cell.setCellValue(titles[i]);
+                cell.setCellStyle(headerStyle);
+            }
+
+            int rowIndex = 1;
+            long saldoFinal = 0L;
+            try (Stream<ActivityExportRow> rows = activityRepository.streamExportRows(
+                    ActivityFilter.builder().userId(userId).build(), fetchSize)) {
+                Iterator<ActivityExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    ActivityExportRow row = iterator.next();
+                    saldoFinal += row.type() == Type.REVENUE ? row.valueCents() : -row.valueCents();
+
+                    Row sheetRow = sheet.createRow(rowIndex++);
+                    Cell date = sheetRow.createCell(0);
+                    date.setCellValue(excelDate(row.date()));
+                    date.setCellStyle(dateStyle);
+                    sheetRow.createCell(1).setCellValue(row.description());
+                    sheetRow.createCell(2).setCellValue(row.type().name());
+                    sheetRow.createCell(3).setCellValue(row.category().name());
+                    Cell value = sheetRow.createCell(4);
+                    value.setCellValue(row.valueCents() / 100.0);
+                    value.setCellStyle(valueStyle);
+                }
+            }
+
+            Row footer = sheet.createRow(rowIndex + 1);
+            Cell label = footer.createCell(0);
+            label.setCellValue("Saldo Final");
+            label.setCellStyle(headerStyle);
+            Cell balance = footer.createCell(4);
+            balance.setCellValue(saldoFinal / 100.0);
+            balance.setCellStyle(valueStyle);
+
+            workbook.write(outputStream);
+        } finally {
+            // close() também remove os arquivos temporários das linhas já descarregadas
+            workbook.close();
+        }
+    }
+
+    // Número de série do Excel (dias desde 30/12/1899) no horário de Brasília, sem criar LocalDateTime
+    private double excelDate(Instant instant) {
+        long localSeconds = instant.getEpochSecond() + BRAZIL_ZONE_RULES.getOffset(instant).getTotalSeconds();
+        return EXCEL_EPOCH_OFFSET_DAYS + localSeconds / 86_400.0;
+    }
+
+    // Linha de subtotal do mês ao fechar o grupo: receitas e despesas no texto, saldo na coluna de valor
+    private void addMonthSubtotal(PdfPTable table, StringBuilder text, int epochMonth,
+                                  long revenue, long expense, char decimalSeparator) {
+        text.setLength(0);
+        text.append("Subtotal ")
+                .append(EpochDates.twoDigits(EpochDates.monthOf(epochMonth))).append('/')
+                .append(EpochDates.yearOf(epochMonth))
+                .append(" - Receitas: ");
+        Money.appendCents(text, revenue, decimalSeparator);
+        text.append(" | Despesas: ");
+        Money.appendCents(text, expense, decimalSeparator);
+
+        PdfPCell label = new PdfPCell(new Phrase(text.toString(), SUBTOTAL_FONT));
+        label.setColspan(4);
+        label.setBackgroundColor(BaseColor.LIGHT_GRAY);
+        table.addCell(label);
+
+        PdfPCell balance = new PdfPCell(new Phrase(cents(text, revenue - expense, decimalSeparator), SUBTOTAL_FONT));
+        balance.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        balance.setBackgroundColor(BaseColor.LIGHT_GRAY);
+        table.addCell(balance);
+    }
+
+    // addCell(Phrase) copia a célula padrão da tabela, então basta ajustar o alinhamento antes
+    private void addCell(PdfPTable table, String text, Font font, int alignment) {
+        table.getDefaultCell().setHorizontalAlignment(alignment);
+        table.addCell(new Phrase(text, font));
+    }
+
+    private String cents(StringBuilder text, long cents, char decimalSeparator) {
+        text.setLength(0);
+        Money.appendCents(text, cents, decimalSeparator);
+        return text.toString();
+    }
+
+    private String typeLabel(Type type) {
+        return type == Type.REVENUE ? "Receita" : "Despesa";
+    }
 }
@@ -0,0 +1,202 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.activity.ActivitySnapshot;
+import com.example.finance_control.domain.balance.UserBalance;
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.domain.user.User;
+import com.example.finance_control.repository.activity.ActivityRepository;
+import com.example.finance_control.repository.activity.ActivityTypeTotal;
+import com.example.finance_control.repository.balance.UserBalanceRepository;
+import com.example.finance_control.repository.user.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantém a tabela user_balances (total de receitas, total de despesas e quantidade de transações
+ * por usuário). Cada alteração soma a diferença com UPDATE ... SET x = x + ? na mesma transação
+ * da escrita em activities, de modo que a leitura do saldo é uma busca por chave primária.
+ */
+@Service
+@Slf4j
+public class UserBalanceService {
+
+    @Autowired
+    private UserBalanceRepository balanceRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${balance.ledger.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Saldo atual; usuários ainda sem linha no ledger (dados anteriores a ele) são calculados na hora
+    @Transactional(readOnly = true)
+    public UserBalance getBalance(String userId) {
+        return balanceRepository.findById(userId)
+                .orElseGet(() -> recompute(userId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onInsert(ActivitySnapshot added) {
+        apply(added, 1);
+    }
+
+    // Inserção em lote: uma atualização por usuário com os totais já somados
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onInsertAll(List<ActivitySnapshot> added) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, UserBalance> deltas = new HashMap<>();
+        for (ActivitySnapshot snapshot : added) {
+            UserBalance delta = deltas.computeIfAbsent(snapshot.userId(),
+                    userId -> new UserBalance(userId, 0L, 0L, 0L));
+            delta.setTotalRevenueCents(delta.getTotalRevenueCents() + revenueOf(snapshot));
+            delta.setTotalExpenseCents(delta.getTotalExpenseCents() + expenseOf(snapshot));
+            delta.setTransactionCount(delta.getTransactionCount() + 1);
+        }
+        for (UserBalance delta : deltas.values()) {
+            applyDelta(delta.getUserId(), delta.getTotalRevenueCents(), delta.getTotalExpenseCents(),
+                    delta.getTransactionCount());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onRemove(ActivitySnapshot removed) {
+        apply(removed, -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUpdate(ActivitySnapshot before, ActivitySnapshot after) {
+        if (!enabled) {
+            return;
+        }
+        if (!before.userId().equals(after.userId())) {
+            apply(before, -1);
+            apply(after, 1);
+            return;
+        }
+        long revenue = revenueOf(after) - revenueOf(before);
+        long expense = expenseOf(after) - expenseOf(before);
+        if (revenue != 0 || expense != 0) {
+            applyDelta(after.userId(), revenue, expense, 0L);
+        }
+    }
+
+    /*
+     * Reconstrói o saldo do usuário a partir da tabela activities. A linha é travada antes do
+     * recálculo (como no refreshBucket do ActivityRollupService): em READ COMMITTED a agregação já
+     * enxerga tudo que foi confirmado até o lock, e um applyDelta concorrente espera o commit desta
+     * transação e soma o seu delta sobre o valor recalculado, em vez de ser sobrescrito por ele.
+     */
+    @Transactional
+    public void rebuild(String userId) {
+        UserBalance stored;
+        do {
+            // Se outra transação apagar a linha entre o INSERT e o lock, cria de novo
+            balanceRepository.insertIfAbsent(userId, 0L, 0L, 0L);
+            stored = balanceRepository.findByIdForUpdate(userId).orElse(null);
+        } while (stored == null);
+
+        UserBalance balance = recompute(userId);
+        stored.setTotalRevenueCents(balance.getTotalRevenueCents());
+        stored.setTotalExpenseCents(balance.getTotalExpenseCents());
+        stored.setTransactionCount(balance.getTransactionCount());
+    }
+
+    // Compara o saldo gravado com o recalculado
+    @Transactional(readOnly = true)
+    public boolean verify(String userId) {
+        UserBalance expected = recompute(userId);
+        return balanceRepository.findById(userId)
+                .map(stored -> stored.getTransactionCount().equals(expected.getTransactionCount())
+                        && stored.getTotalRevenueCents() == expected.getTotalRevenueCents()
+                        && stored.getTotalExpenseCents() == expected.getTotalExpenseCents())
+                .orElse(expected.getTransactionCount() == 0);
+    }
+
+    // Job de verificação: reconstrói o saldo de usuários com divergências
+    @Scheduled(cron = "${balance.ledger.verify-cron:0 30 3 * * *}")
+    public void verifyAll() {
+        if (!enabled) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int repaired = 0;
+        for (User user : userRepository.findAll()) {
+            String userId = user.getId();
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> verify(userId)))) {
+                log.warn("Balance ledger for user {} is out of sync, rebuilding", userId);
+                transactionTemplate.executeWithoutResult(status -> rebuild(userId));
+                repaired++;
+            }
+        }
+        log.info("Balance ledger verification finished, {} users rebuilt", repaired);
+    }
+
+    private void apply(ActivitySnapshot snapshot, int sign) {
+        if (!enabled) {
+            return;
+        }
+        applyDelta(snapshot.userId(), sign * revenueOf(snapshot), sign * expenseOf(snapshot), (long) sign);
+    }
+
+    private void applyDelta(String userId, long revenue, long expense, long count) {
+        if (!balanceRepository.existsById(userId)) {
+            // Primeira escrita do usuário com o ledger ativo: cria a linha com os totais anteriores a esta
+            // transação (o recálculo já enxerga a própria alteração, então ela é descontada). Se outra
+            // transação criar a linha antes, o INSERT espera por ela e não faz nada; o delta abaixo é
+            // somado à linha dela, sem perder nenhuma das duas escritas.
+            UserBalance current = recompute(userId);
+            balanceRepository.insertIfAbsent(userId,
+                    current.getTotalRevenueCents() - revenue,
+                    current.getTotalExpenseCents() - expense,
+                    current.getTransactionCount() - count);
+        }
+        balanceRepository.upsertAdd(userId, revenue, expense, count);
+    }
+
+    private UserBalance recompute(String userId) {
+        long revenue = 0;
+        long expense = 0;
+        long count = 0;
+        for (ActivityTypeTotal total : activityRepository.sumByUserIdGroupByType(userId)) {
+            if (total.type() == Type.REVENUE) {
+                revenue += total.sum();
+            } else {
+                expense += total.sum();
+            }
+            count += total.count();
+        }
+        return new UserBalance(userId, revenue, expense, count);
+    }
+
+    private long revenueOf(ActivitySnapshot snapshot) {
+        return snapshot.type() == Type.REVENUE ? snapshot.valueCents() : 0;
+    }
+
+    private long expenseOf(ActivitySnapshot snapshot) {
+        return snapshot.type() == Type.EXPENSE ? snapshot.valueCents() : 0;
+    }
+}
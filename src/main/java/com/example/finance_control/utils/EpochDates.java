@@ -0,0 +1,94 @@
+package com.example.finance_control.utils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.zone.ZoneRules;
+
+/**
+ * Conversões de datas para inteiros (epoch-day e epoch-month) sem alocar objetos
+ * {@link LocalDate} a cada chamada. Usado nos laços de agregação e exportação.
+ */
+public final class EpochDates {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3_600;
+
+    private static final String[] TWO_DIGITS = new String[100];
+
+    static {
+        for (int i = 0; i < TWO_DIGITS.length; i++) {
+            TWO_DIGITS[i] = i < 10 ? "0" + i : Integer.toString(i);
+        }
+    }
+
+    private EpochDates() {
+    }
+
+    // Dia (desde 1970-01-01) do instante no fuso informado
+    public static long epochDay(Instant instant, ZoneRules rules) {
+        long localSeconds = instant.getEpochSecond() + rules.getOffset(instant).getTotalSeconds();
+        return Math.floorDiv(localSeconds, SECONDS_PER_DAY);
+    }
+
+    // Mês absoluto: ano * 12 + (mês - 1)
+    public static int epochMonth(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    // Algoritmo "civil from days" (H. Hinnant) - converte o epoch-day em ano * 12 + (mês - 1)
+    public static int epochMonth(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1_460 + doe / 36_524 - doe / 146_096) / 365;
+        long year = yoe + era * 400;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        if (month <= 2) {
+            year++;
+        }
+        return (int) year * 12 + month - 1;
+    }
+
+    // Escreve o instante como "dd/MM/yyyy HH:mm" no fuso informado (mesmo formato de FormatDateTime)
+    public static void appendDateTime(StringBuilder target, Instant instant, ZoneRules rules) {
+        long localSeconds = instant.getEpochSecond() + rules.getOffset(instant).getTotalSeconds();
+        long epochDay = Math.floorDiv(localSeconds, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(localSeconds, SECONDS_PER_DAY);
+
+        // "civil from days", como em epochMonth(long), mantendo também o dia
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1_460 + doe / 36_524 - doe / 146_096) / 365;
+        long year = yoe + era * 400;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        if (month <= 2) {
+            year++;
+        }
+
+        target.append(TWO_DIGITS[day]).append('/')
+                .append(TWO_DIGITS[month]).append('/')
+                .append(year).append(' ')
+                .append(TWO_DIGITS[secondOfDay / SECONDS_PER_HOUR]).append(':')
+                .append(TWO_DIGITS[secondOfDay % SECONDS_PER_HOUR / SECONDS_PER_MINUTE]);
+    }
+
+    public static int yearOf(int epochMonth) {
+        return Math.floorDiv(epochMonth, 12);
+    }
+
+    public static int monthOf(int epochMonth) {
+        return Math.floorMod(epochMonth, 12) + 1;
+    }
+
+    // "01".."99" sem String.format
+    public static String twoDigits(int value) {
+        return TWO_DIGITS[value];
+    }
+}
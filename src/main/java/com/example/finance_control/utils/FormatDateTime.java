@@ -1,9 +1,13 @@
 package com.example.finance_control.utils;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
 import java.util.Locale;
 
 public class FormatDateTime {
@@ -12,8 +16,35 @@ public class FormatDateTime {
             .withLocale(Locale.forLanguageTag("pt-BR"));
     private static final ZoneId BRAZIL_ZONE = ZoneId.of("America/Sao_Paulo");
 
+    // Formatos aceitos na importação: o da exportação e os mais comuns em extratos bancários
+    private static final DateTimeFormatter[] PARSERS = {
+            DateTimeFormatter.ofPattern("dd/MM/yyyy[ HH:mm[:ss]]"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd[ HH:mm[:ss]]"),
+            DateTimeFormatter.ofPattern("dd/MM/yy")
+    };
+
     public static String formatDate(Instant instant) {
         LocalDateTime ldt = LocalDateTime.ofInstant(instant, BRAZIL_ZONE);
         return ldt.format(FORMATTER);
     }
-}
\ No newline at end of file
+
+    // Datas sem horário são consideradas no início do dia (horário de Brasília)
+    public static Instant parseDate(String text) {
+        String value = text.trim();
+        if (value.indexOf('T') > 0) {
+            return OffsetDateTime.parse(value).toInstant();
+        }
+        for (DateTimeFormatter parser : PARSERS) {
+            try {
+                TemporalAccessor parsed = parser.parseBest(value, LocalDateTime::from, LocalDate::from);
+                LocalDateTime ldt = parsed instanceof LocalDateTime dateTime
+                        ? dateTime
+                        : ((LocalDate) parsed).atStartOfDay();
+                return ldt.atZone(BRAZIL_ZONE).toInstant();
+            } catch (DateTimeParseException ignored) {
+                // tenta o próximo formato
+            }
+        }
+        throw new DateTimeParseException("Unsupported date format", value, 0);
+    }
+}
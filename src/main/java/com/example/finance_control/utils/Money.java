@@ -0,0 +1,49 @@
+package com.example.finance_control.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valores monetários são guardados e somados como centavos (long). A conversão para
+ * {@link BigDecimal} acontece apenas na borda (DTOs de entrada e saída).
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_EVEN).movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // Divisão de um total em centavos (médias), arredondada para 2 casas
+    public static BigDecimal divide(long cents, long divisor) {
+        if (divisor == 0) {
+            return fromCents(0);
+        }
+        return BigDecimal.valueOf(cents, 2).divide(BigDecimal.valueOf(divisor), 2, RoundingMode.HALF_EVEN);
+    }
+
+    // Escreve os centavos como "-1234,56" (separador informado) sem criar BigDecimal nem String
+    public static void appendCents(StringBuilder target, long cents, char decimalSeparator) {
+        if (cents < 0) {
+            target.append('-');
+        }
+        long absolute = Math.abs(cents);
+        long fraction = absolute % 100;
+        target.append(absolute / 100).append(decimalSeparator);
+        if (fraction < 10) {
+            target.append('0');
+        }
+        target.append(fraction);
+    }
+
+    // Participação de part em total, em porcentagem - mesma ordem de operações do cálculo original (divide e depois multiplica)
+    public static double percentage(long part, long total) {
+        return total == 0 ? 0.0 : ((double) part / total) * 100;
+    }
+}
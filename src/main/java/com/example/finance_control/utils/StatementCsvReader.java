@@ -0,0 +1,324 @@
+package com.example.finance_control.utils;
+
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.exceptions.DomainException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lê um extrato CSV linha a linha, sem carregar o arquivo em memória. O layout é detectado
+ * pelo cabeçalho: o mesmo da exportação (Descrição;Tipo;Categoria;Quantia;Data e Hora) ou o
+ * de extratos bancários comuns (Data/Descrição/Valor, separados por ';' ou ','). Sem coluna de
+ * tipo, o sinal do valor decide entre receita e despesa; sem coluna de categoria, usa
+ * OTHERS/OTHER_INCOME.
+ */
+public class StatementCsvReader implements Closeable {
+
+    private static final Map<String, String> COLUMN_ALIASES = new HashMap<>();
+
+    static {
+        for (String alias : List.of("data e hora", "data", "date", "data lancamento", "data do lancamento",
+                "data movimento", "data da transacao")) {
+            COLUMN_ALIASES.put(alias, "date");
+        }
+        for (String alias : List.of("descricao", "description", "title", "historico", "lancamento",
+                "estabelecimento")) {
+            COLUMN_ALIASES.put(alias, "description");
+        }
+        for (String alias : List.of("quantia", "valor", "amount", "valor (r$)", "valor r$")) {
+            COLUMN_ALIASES.put(alias, "amount");
+        }
+        COLUMN_ALIASES.put("tipo", "type");
+        COLUMN_ALIASES.put("type", "type");
+        COLUMN_ALIASES.put("categoria", "category");
+        COLUMN_ALIASES.put("category", "category");
+    }
+
+    private final BufferedReader reader;
+    private final StringBuilder cell = new StringBuilder();
+    private final char delimiter;
+    private final int dateColumn;
+    private final int descriptionColumn;
+    private final int amountColumn;
+    private final int typeColumn;
+    private final int categoryColumn;
+    // Fatura de cartão (date,title,amount): valores positivos são compras
+    private final boolean positiveIsExpense;
+    private int lineNumber;
+
+    public StatementCsvReader(Reader input) throws IOException {
+        this.reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+
+        String header = readLine();
+        if (header == null) {
+            throw new DomainException("CSV file is empty.");
+        }
+        if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+            header = header.substring(1);
+        }
+        this.delimiter = header.indexOf(';') >= 0 ? ';' : ',';
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            String column = COLUMN_ALIASES.get(normalize(names.get(i)));
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        if (!columns.containsKey("date") || !columns.containsKey("description") || !columns.containsKey("amount")) {
+            throw new DomainException("Unrecognized CSV header: date, description and amount columns are required.");
+        }
+        this.dateColumn = columns.get("date");
+        this.descriptionColumn = columns.get("description");
+        this.amountColumn = columns.get("amount");
+        this.typeColumn = columns.getOrDefault("type", -1);
+        this.categoryColumn = columns.getOrDefault("category", -1);
+        this.positiveIsExpense = typeColumn < 0 && names.size() == 3
+                && "title".equals(normalize(names.get(descriptionColumn)));
+    }
+
+    public record Line(Instant date, String description, long valueCents, Type type, Category category) {
+    }
+
+    // Número (1-based, contando o cabeçalho) da última linha lida
+    public int lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Próxima linha de lançamento, ou null no fim do arquivo. Linhas em branco e de saldo são
+     * ignoradas. Uma linha inválida gera DomainException e a leitura pode continuar na seguinte.
+     */
+    public Line next() throws IOException {
+        String line;
+        List<String> cells;
+        do {
+            line = readLine();
+            if (line == null) {
+                return null;
+            }
+            cells = line.isBlank() ? List.of() : split(line);
+        } while (cells.isEmpty() || isBalanceLine(cells));
+
+        String description = cell(cells, descriptionColumn);
+        String amount = cell(cells, amountColumn);
+        String date = cell(cells, dateColumn);
+        if (description.isEmpty() || amount.isEmpty() || date.isEmpty()) {
+            throw new DomainException("Date, description and amount are required.");
+        }
+
+        long signedCents = parseAmount(amount);
+        if (positiveIsExpense) {
+            signedCents = -signedCents;
+        }
+        Type type = typeColumn >= 0 && !cell(cells, typeColumn).isEmpty()
+                ? parseType(cell(cells, typeColumn))
+                : signedCents < 0 ? Type.EXPENSE : Type.REVENUE;
+        Category category = categoryColumn >= 0 && !cell(cells, categoryColumn).isEmpty()
+                ? parseCategory(cell(cells, categoryColumn))
+                : type == Type.REVENUE ? Category.OTHER_INCOME : Category.OTHERS;
+
+        return new Line(parseDate(date), description, Math.abs(signedCents), type, category);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String readLine() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            lineNumber++;
+        }
+        return line;
+    }
+
+    // Separa os campos respeitando aspas ("a;b" e aspas escapadas "")
+    private List<String> split(String line) {
+        List<String> cells = new ArrayList<>();
+        cell.setLength(0);
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    private String cell(List<String> cells, int column) {
+        return column < cells.size() ? cells.get(column) : "";
+    }
+
+    // Rodapé da exportação ("Saldo Final") e linhas de saldo dos extratos bancários
+    private boolean isBalanceLine(List<String> cells) {
+        String description = normalize(cell(cells, descriptionColumn));
+        String first = normalize(cells.get(0));
+        return first.equals("saldo final")
+                || description.startsWith("saldo anterior")
+                || description.startsWith("saldo do dia")
+                || description.equals("saldo");
+    }
+
+    /**
+     * Aceita "1234.56", "1234,56", "1.234,56", "1,234.56", "1.234.567", "R$ -12,50" e "(12,50)".
+     * Quando os dois separadores aparecem, o último é o decimal. Um separador repetido é de milhar.
+     * Um separador único seguido de exatamente 3 dígitos ("1,234") é ambíguo: vale como milhar,
+     * a não ser que seja o separador decimal do layout (',' em arquivos com ';' e '.' em arquivos
+     * com ','). Valores com mais de 2 casas decimais são rejeitados em vez de arredondados.
+     */
+    private long parseAmount(String text) {
+        String value = text.replace("R$", "").replace(" ", "").replace("\u00A0", "");
+        boolean negative = false;
+        if (value.startsWith("(") && value.endsWith(")")) {
+            negative = true;
+            value = value.substring(1, value.length() - 1);
+        }
+        if (value.startsWith("-")) {
+            negative = !negative;
+            value = value.substring(1);
+        } else if (value.startsWith("+")) {
+            value = value.substring(1);
+        }
+
+        int lastComma = value.lastIndexOf(',');
+        int lastDot = value.lastIndexOf('.');
+        int decimal = Math.max(lastComma, lastDot);
+        if (decimal >= 0) {
+            char separator = value.charAt(decimal);
+            boolean single = value.indexOf(separator) == decimal;
+            boolean mixed = Math.min(lastComma, lastDot) >= 0;
+            if (!single && mixed) {
+                throw new DomainException("Invalid amount: " + text);
+            }
+            if (!single
+                    || (!mixed && value.length() - decimal - 1 == 3 && separator != decimalSeparator())) {
+                // Só separadores de milhar ("1.234.567", "1,234" em um arquivo com ';')
+                decimal = -1;
+            }
+        }
+        String integerPart = decimal >= 0 ? value.substring(0, decimal) : value;
+        String fractionPart = decimal >= 0 ? value.substring(decimal + 1) : "";
+
+        if (fractionPart.length() > 2) {
+            throw new DomainException("Invalid amount: " + text + " (more than 2 decimal places)");
+        }
+        String digits = ungroup(integerPart);
+        if (digits == null || !isDigits(fractionPart) || (digits.isEmpty() && fractionPart.isEmpty())) {
+            throw new DomainException("Invalid amount: " + text);
+        }
+
+        try {
+            BigDecimal amount = new BigDecimal((digits.isEmpty() ? "0" : digits)
+                    + "." + (fractionPart.isEmpty() ? "0" : fractionPart));
+            long cents = Money.toCents(amount);
+            return negative ? -cents : cents;
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new DomainException("Invalid amount: " + text);
+        }
+    }
+
+    // Separador decimal esperado pelo layout: extratos com ';' usam vírgula, com ',' usam ponto
+    private char decimalSeparator() {
+        return delimiter == ';' ? ',' : '.';
+    }
+
+    // Remove os separadores de milhar da parte inteira; null se os grupos não forem de 3 dígitos
+    private static String ungroup(String integerPart) {
+        boolean dots = integerPart.indexOf('.') >= 0;
+        boolean commas = integerPart.indexOf(',') >= 0;
+        if (!dots && !commas) {
+            return isDigits(integerPart) ? integerPart : null;
+        }
+        if (dots && commas) {
+            return null;
+        }
+        String[] groups = integerPart.split("[.,]", -1);
+        if (groups[0].isEmpty() || groups[0].length() > 3 || groups[0].charAt(0) == '0' || !isDigits(groups[0])) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(groups[0]);
+        for (int i = 1; i < groups.length; i++) {
+            if (groups[i].length() != 3 || !isDigits(groups[i])) {
+                return null;
+            }
+            digits.append(groups[i]);
+        }
+        return digits.toString();
+    }
+
+    private static boolean isDigits(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Instant parseDate(String text) {
+        try {
+            return FormatDateTime.parseDate(text);
+        } catch (DateTimeParseException e) {
+            throw new DomainException("Invalid date: " + text);
+        }
+    }
+
+    private Type parseType(String text) {
+        return switch (normalize(text)) {
+            case "revenue", "receita", "entrada", "credito", "c" -> Type.REVENUE;
+            case "expense", "despesa", "saida", "debito", "d" -> Type.EXPENSE;
+            default -> throw new DomainException("Invalid type: " + text);
+        };
+    }
+
+    // Nome do enum (como na exportação) ou nome de exibição ("Alimentação")
+    private Category parseCategory(String text) {
+        String normalized = normalize(text);
+        for (Category category : Category.values()) {
+            if (category.name().equalsIgnoreCase(text) || normalize(category.getDisplayName()).equals(normalized)) {
+                return category;
+            }
+        }
+        throw new DomainException("Invalid category: " + text);
+    }
+
+    // Minúsculas e sem acentos, para comparar cabeçalhos e rótulos
+    private static String normalize(String text) {
+        return Normalizer.normalize(text.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,20 @@
+-- Tabelas base. IF NOT EXISTS: bancos criados anteriormente pelo ddl-auto são aproveitados
+-- (baseline-on-migrate na versão 0)
+CREATE TABLE IF NOT EXISTS users (
+    id       VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS activities (
+    id          VARCHAR(255)                NOT NULL,
+    date        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    description VARCHAR(255)                NOT NULL,
+    value       DOUBLE PRECISION            NOT NULL,
+    type        VARCHAR(255)                NOT NULL,
+    category    VARCHAR(255)                NOT NULL,
+    user_id     VARCHAR(255)                NOT NULL,
+    CONSTRAINT activities_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_activities_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,18 @@
+-- findByEmail (login e cadastro)
+CREATE UNIQUE INDEX IF NOT EXISTS idx_users_email ON users (email);
+
+-- Listagem/paginação por keyset e agregações por período (dashboard, comparação, saldo diário):
+-- user_id + date, com type/category/value no índice para index-only scans
+CREATE INDEX IF NOT EXISTS idx_activities_user_date
+    ON activities (user_id, date DESC, id DESC)
+    INCLUDE (type, category, value);
+
+-- Filtros por tipo e relatório por categoria de um tipo
+CREATE INDEX IF NOT EXISTS idx_activities_user_type_date
+    ON activities (user_id, type, date DESC, id DESC)
+    INCLUDE (category, value);
+
+-- Filtros por categoria e resumo de categoria (totais + mais recentes)
+CREATE INDEX IF NOT EXISTS idx_activities_user_category_date
+    ON activities (user_id, category, date DESC, id DESC)
+    INCLUDE (type, value);
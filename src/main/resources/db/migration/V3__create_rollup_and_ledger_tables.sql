@@ -0,0 +1,21 @@
+-- Totais mensais por usuário/mês/categoria/tipo (ActivityRollupService)
+CREATE TABLE IF NOT EXISTS activity_monthly_rollup (
+    user_id           VARCHAR(255)     NOT NULL,
+    year_month        INTEGER          NOT NULL,
+    category          VARCHAR(255)     NOT NULL,
+    type              VARCHAR(255)     NOT NULL,
+    total_value       DOUBLE PRECISION NOT NULL,
+    transaction_count BIGINT           NOT NULL,
+    min_value         DOUBLE PRECISION NOT NULL,
+    max_value         DOUBLE PRECISION NOT NULL,
+    CONSTRAINT activity_monthly_rollup_pkey PRIMARY KEY (user_id, year_month, category, type)
+);
+
+-- Saldo corrente por usuário (UserBalanceService)
+CREATE TABLE IF NOT EXISTS user_balances (
+    user_id           VARCHAR(255)     NOT NULL,
+    total_revenue     DOUBLE PRECISION NOT NULL,
+    total_expense     DOUBLE PRECISION NOT NULL,
+    transaction_count BIGINT           NOT NULL,
+    CONSTRAINT user_balances_pkey PRIMARY KEY (user_id)
+);
@@ -0,0 +1,41 @@
+-- Valores monetários passam a ser gravados em centavos (BIGINT) em vez de DOUBLE PRECISION
+
+-- activities.value -> activities.value_cents
+ALTER TABLE activities ADD COLUMN value_cents BIGINT;
+UPDATE activities SET value_cents = ROUND(value::NUMERIC * 100);
+ALTER TABLE activities ALTER COLUMN value_cents SET NOT NULL;
+
+-- Os índices de cobertura incluem a coluna antiga; são recriados com value_cents
+DROP INDEX IF EXISTS idx_activities_user_date;
+DROP INDEX IF EXISTS idx_activities_user_type_date;
+DROP INDEX IF EXISTS idx_activities_user_category_date;
+
+ALTER TABLE activities DROP COLUMN value;
+
+CREATE INDEX IF NOT EXISTS idx_activities_user_date
+    ON activities (user_id, date DESC, id DESC)
+    INCLUDE (type, category, value_cents);
+
+CREATE INDEX IF NOT EXISTS idx_activities_user_type_date
+    ON activities (user_id, type, date DESC, id DESC)
+    INCLUDE (category, value_cents);
+
+CREATE INDEX IF NOT EXISTS idx_activities_user_category_date
+    ON activities (user_id, category, date DESC, id DESC)
+    INCLUDE (type, value_cents);
+
+-- Rollup mensal
+ALTER TABLE activity_monthly_rollup
+    ALTER COLUMN total_value TYPE BIGINT USING ROUND(total_value::NUMERIC * 100),
+    ALTER COLUMN min_value TYPE BIGINT USING ROUND(min_value::NUMERIC * 100),
+    ALTER COLUMN max_value TYPE BIGINT USING ROUND(max_value::NUMERIC * 100);
+ALTER TABLE activity_monthly_rollup RENAME COLUMN total_value TO total_cents;
+ALTER TABLE activity_monthly_rollup RENAME COLUMN min_value TO min_cents;
+ALTER TABLE activity_monthly_rollup RENAME COLUMN max_value TO max_cents;
+
+-- Saldo corrente
+ALTER TABLE user_balances
+    ALTER COLUMN total_revenue TYPE BIGINT USING ROUND(total_revenue::NUMERIC * 100),
+    ALTER COLUMN total_expense TYPE BIGINT USING ROUND(total_expense::NUMERIC * 100);
+ALTER TABLE user_balances RENAME COLUMN total_revenue TO total_revenue_cents;
+ALTER TABLE user_balances RENAME COLUMN total_expense TO total_expense_cents;
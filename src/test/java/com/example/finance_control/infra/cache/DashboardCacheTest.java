@@ -0,0 +1,65 @@
+package com.example.finance_control.infra.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardCacheTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 1, 31);
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        DashboardCache cache = new DashboardCache(100, Duration.ofMinutes(1));
+        DashboardCache.Key key = DashboardCache.Key.of("user-1", "dashboard", START, END, null, null, null);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(key, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get(key, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void expiredEntryIsReloaded() {
+        DashboardCache cache = new DashboardCache(100, Duration.ZERO);
+        DashboardCache.Key key = DashboardCache.Key.of("user-1", "dashboard", START, END, null, null, null);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(key, loads::incrementAndGet);
+        cache.get(key, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidationOnlyDropsThatUser() {
+        DashboardCache cache = new DashboardCache(100, Duration.ofMinutes(1));
+        DashboardCache.Key first = DashboardCache.Key.of("user-1", "dashboard", START, END, null, null, null);
+        DashboardCache.Key second = DashboardCache.Key.of("user-2", "dashboard", START, END, null, null, null);
+        cache.get(first, () -> "a");
+        cache.get(second, () -> "b");
+
+        cache.invalidateUser("user-1");
+
+        assertThat(cache.get(first, () -> "reloaded")).isEqualTo("reloaded");
+        assertThat(cache.get(second, () -> "reloaded")).isEqualTo("b");
+    }
+
+    @Test
+    void resultComputedDuringInvalidationIsNotStored() {
+        DashboardCache cache = new DashboardCache(100, Duration.ofMinutes(1));
+        DashboardCache.Key key = DashboardCache.Key.of("user-1", "dashboard", START, END, null, null, null);
+
+        cache.get(key, () -> {
+            cache.invalidateUser("user-1");
+            return "stale";
+        });
+
+        assertThat(cache.get(key, () -> "fresh")).isEqualTo("fresh");
+    }
+}
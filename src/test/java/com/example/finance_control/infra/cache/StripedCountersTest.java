@@ -0,0 +1,27 @@
+package com.example.finance_control.infra.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedCountersTest {
+
+    @Test
+    void countersStartAtZeroAndNeverRepeat() {
+        StripedCounters counters = new StripedCounters(8);
+
+        assertThat(counters.get("user-1")).isZero();
+        assertThat(counters.increment("user-1")).isEqualTo(1);
+        assertThat(counters.decrement("user-1")).isZero();
+        assertThat(counters.increment("user-1")).isEqualTo(1);
+    }
+
+    @Test
+    void collidingKeysShareTheCounter() {
+        StripedCounters counters = new StripedCounters(1);
+
+        counters.increment("user-1");
+
+        assertThat(counters.get("user-2")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.finance_control.infra.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedLruMapTest {
+
+    @Test
+    void singleSegmentEvictsLeastRecentlyUsed() {
+        StripedLruMap<String, Integer> map = new StripedLruMap<>(2, 1);
+        map.put("a", 1);
+        map.put("b", 2);
+        map.get("a");
+        map.put("c", 3);
+
+        assertThat(map.get("a")).isEqualTo(1);
+        assertThat(map.get("b")).isNull();
+        assertThat(map.get("c")).isEqualTo(3);
+        assertThat(map.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void sizeStaysWithinCapacity() {
+        StripedLruMap<Integer, Integer> map = new StripedLruMap<>(64);
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, i);
+        }
+
+        assertThat(map.size()).isLessThanOrEqualTo(64);
+        assertThat(map.evictions()).isEqualTo(10_000 - map.size());
+    }
+
+    @Test
+    void removeOnlyMatchingValue() {
+        StripedLruMap<String, Integer> map = new StripedLruMap<>(10);
+        map.put("a", 1);
+
+        assertThat(map.remove("a", 2)).isFalse();
+        assertThat(map.remove("a", 1)).isTrue();
+        assertThat(map.get("a")).isNull();
+    }
+
+    @Test
+    void replaceOnlyMatchingValue() {
+        StripedLruMap<String, Integer> map = new StripedLruMap<>(10);
+        map.put("a", 1);
+
+        assertThat(map.replace("a", 2, 3)).isFalse();
+        assertThat(map.replace("a", 1, 3)).isTrue();
+        assertThat(map.replace("b", 1, 3)).isFalse();
+        assertThat(map.get("a")).isEqualTo(3);
+        assertThat(map.get("b")).isNull();
+    }
+
+    @Test
+    void removeIfScansEverySegment() {
+        StripedLruMap<Integer, String> map = new StripedLruMap<>(1_000);
+        for (int i = 0; i < 500; i++) {
+            map.put(i, i % 2 == 0 ? "even" : "odd");
+        }
+
+        assertThat(map.removeIf((key, value) -> value.equals("even"))).isEqualTo(250);
+        assertThat(map.size()).isEqualTo(250);
+        assertThat(map.get(2)).isNull();
+        assertThat(map.get(3)).isEqualTo("odd");
+    }
+
+    @Test
+    void concurrentWritersKeepTheBound() throws Exception {
+        StripedLruMap<Integer, Integer> map = new StripedLruMap<>(256);
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 100_000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        map.put(offset + i, i);
+                        map.get(offset + i / 2);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(map.size()).isLessThanOrEqualTo(256);
+        assertThat(map.evictions() + map.size()).isEqualTo(8 * 20_000);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.finance_control.infra.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenPrincipalCacheTest {
+
+    private static final AuthenticatedUser USER = new AuthenticatedUser("user-1", "user@example.com");
+
+    @Test
+    void cachedTokenIsReturnedUntilExpiry() {
+        TokenPrincipalCache cache = new TokenPrincipalCache(100);
+        cache.put("valid", USER, Instant.now().plusSeconds(60), cache.generation(USER.email()));
+        cache.put("expired", USER, Instant.now().minusSeconds(1), cache.generation(USER.email()));
+
+        assertThat(cache.get("valid")).isEqualTo(USER);
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("unknown")).isNull();
+    }
+
+    @Test
+    void invalidationDropsEntriesAndStaleLookups() {
+        TokenPrincipalCache cache = new TokenPrincipalCache(100);
+        long generation = cache.generation(USER.email());
+        cache.put("token", USER, Instant.now().plusSeconds(60), generation);
+
+        cache.invalidateUser(USER.email());
+        assertThat(cache.get("token")).isNull();
+
+        // Busca iniciada antes da invalidação não volta para o cache
+        cache.put("token", USER, Instant.now().plusSeconds(60), generation);
+        assertThat(cache.get("token")).isNull();
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        TokenPrincipalCache cache = new TokenPrincipalCache(0);
+        cache.put("token", USER, Instant.now().plusSeconds(60), cache.generation(USER.email()));
+
+        assertThat(cache.get("token")).isNull();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.finance_control.infra.web;
+
+import com.example.finance_control.infra.cache.UserDataVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalRequestInterceptorTest {
+
+    private ConditionalRequestInterceptor interceptor;
+    private final ConditionalResponseBodyAdvice advice = new ConditionalResponseBodyAdvice();
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new ConditionalRequestInterceptor();
+        ReflectionTestUtils.setField(interceptor, "userDataVersions", new UserDataVersions());
+    }
+
+    @Test
+    void successfulResponseCarriesETag() {
+        MockHttpServletRequest request = dashboardRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, null)).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+
+        ServletServerHttpResponse body = writeBody(request, response);
+        assertThat(body.getHeaders().getETag()).isNotNull();
+        assertThat(body.getHeaders().getCacheControl()).isEqualTo("private, no-cache");
+    }
+
+    @Test
+    void errorResponseHasNoETag() {
+        MockHttpServletRequest request = dashboardRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        response.setStatus(404);
+
+        ServletServerHttpResponse body = writeBody(request, response);
+        assertThat(body.getHeaders().getETag()).isNull();
+        assertThat(body.getHeaders().getCacheControl()).isNull();
+    }
+
+    @Test
+    void matchingIfNoneMatchAnswersNotModified() {
+        MockHttpServletRequest first = dashboardRequest();
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        interceptor.preHandle(first, firstResponse, null);
+        String etag = writeBody(first, firstResponse).getHeaders().getETag();
+
+        MockHttpServletRequest second = dashboardRequest();
+        second.addHeader(HttpHeaders.IF_NONE_MATCH, "W/" + etag);
+        MockHttpServletResponse secondResponse = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(second, secondResponse, null)).isFalse();
+        assertThat(secondResponse.getStatus()).isEqualTo(304);
+        assertThat(secondResponse.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+
+    private static MockHttpServletRequest dashboardRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboard");
+        request.setParameter("userId", "user-1");
+        request.setQueryString("userId=user-1");
+        return request;
+    }
+
+    private ServletServerHttpResponse writeBody(MockHttpServletRequest request, MockHttpServletResponse response) {
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+        advice.beforeBodyWrite("{}", null, null, null, new ServletServerHttpRequest(request), serverResponse);
+        return serverResponse;
+    }
+}
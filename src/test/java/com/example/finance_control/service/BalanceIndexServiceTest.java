@@ -0,0 +1,134 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.activity.ActivityChangedEvent;
+import com.example.finance_control.domain.activity.ActivitySnapshot;
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.repository.activity.ActivityDailyTotal;
+import com.example.finance_control.repository.activity.ActivityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BalanceIndexServiceTest {
+
+    private static final String USER = "user-1";
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    private final ActivityRepository activityRepository = mock(ActivityRepository.class);
+    private BalanceIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BalanceIndexService(true, 100, Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "activityRepository", activityRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void committedChangeIsAppliedToCachedIndex() {
+        when(activityRepository.findDailyTotalsByUserId(USER)).thenReturn(revenue(10_000));
+        assertThat(service.totals(USER).revenue()).isEqualTo(10_000);
+
+        List<TransactionSynchronization> transaction = write(ActivityChangedEvent.inserted(snapshot(2_500)));
+        commit(transaction);
+
+        assertThat(service.totals(USER).revenue()).isEqualTo(12_500);
+        verify(activityRepository, times(1)).findDailyTotalsByUserId(USER);
+    }
+
+    @Test
+    void indexBuiltBetweenCommitAndListenerIsNotCached() {
+        List<TransactionSynchronization> transaction = write(ActivityChangedEvent.inserted(snapshot(2_500)));
+
+        // O banco já tem a escrita confirmada, mas o AFTER_COMMIT ainda não rodou
+        when(activityRepository.findDailyTotalsByUserId(USER)).thenReturn(revenue(12_500));
+        assertThat(service.totals(USER).revenue()).isEqualTo(12_500);
+
+        commit(transaction);
+
+        assertThat(service.totals(USER).revenue()).isEqualTo(12_500);
+        verify(activityRepository, times(2)).findDailyTotalsByUserId(USER);
+    }
+
+    @Test
+    void rolledBackWriteReleasesTheUser() {
+        List<TransactionSynchronization> transaction = write(ActivityChangedEvent.inserted(snapshot(2_500)));
+        transaction.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        when(activityRepository.findDailyTotalsByUserId(USER)).thenReturn(revenue(10_000));
+        service.totals(USER);
+        service.totals(USER);
+
+        verify(activityRepository, times(1)).findDailyTotalsByUserId(USER);
+    }
+
+    @Test
+    void concurrentCommitsAreAllApplied() {
+        when(activityRepository.findDailyTotalsByUserId(USER)).thenReturn(revenue(10_000));
+        service.totals(USER);
+
+        List<TransactionSynchronization> first = write(ActivityChangedEvent.inserted(snapshot(1_000)));
+        List<TransactionSynchronization> second = write(ActivityChangedEvent.inserted(snapshot(2_000)));
+        commit(second);
+        commit(first);
+
+        assertThat(service.totals(USER).revenue()).isEqualTo(13_000);
+        verify(activityRepository, times(1)).findDailyTotalsByUserId(USER);
+    }
+
+    @Test
+    void expiredIndexIsRebuilt() {
+        service = new BalanceIndexService(true, 100, Duration.ZERO);
+        ReflectionTestUtils.setField(service, "activityRepository", activityRepository);
+        when(activityRepository.findDailyTotalsByUserId(USER)).thenReturn(revenue(10_000));
+
+        service.totals(USER);
+        service.totals(USER);
+
+        verify(activityRepository, times(2)).findDailyTotalsByUserId(USER);
+    }
+
+    // Publica o evento na fase BEFORE_COMMIT de uma transação simulada e devolve as sincronizações registradas
+    private List<TransactionSynchronization> write(ActivityChangedEvent event) {
+        TransactionSynchronizationManager.initSynchronization();
+        service.onActivityChanged(event);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+
+    private static void commit(List<TransactionSynchronization> synchronizations) {
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static List<ActivityDailyTotal> revenue(long cents) {
+        return List.of(new ActivityDailyTotal(DAY, Type.REVENUE, 1L, cents));
+    }
+
+    private static ActivitySnapshot snapshot(long cents) {
+        return new ActivitySnapshot(USER, DAY.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant(),
+                Type.REVENUE, Category.SALARY, cents);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.repository.activity.ActivityDailyTotal;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailyBalanceIndexTest {
+
+    private static final long FIRST_DAY = LocalDate.of(2025, 1, 1).toEpochDay();
+
+    @Test
+    void emptyIndexAnswersZero() {
+        DailyBalanceIndex index = DailyBalanceIndex.build(List.of());
+
+        assertThat(index.total()).isEqualTo(new DailyBalanceIndex.Totals(0, 0, 0));
+        assertThat(index.range(FIRST_DAY, FIRST_DAY + 30)).isEqualTo(new DailyBalanceIndex.Totals(0, 0, 0));
+    }
+
+    @Test
+    void rangesMatchBruteForce() {
+        Random random = new Random(5);
+        TreeMap<Long, long[]> days = randomDays(random);
+        DailyBalanceIndex index = DailyBalanceIndex.build(toDailyTotals(days));
+
+        for (int i = 0; i < 500; i++) {
+            long from = FIRST_DAY - 5 + random.nextInt(380);
+            long to = from + random.nextInt(120) - 10;
+            assertThat(index.range(from, to)).isEqualTo(bruteForce(days, from, to));
+        }
+        assertThat(index.total()).isEqualTo(bruteForce(days, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void deltasMatchRebuiltIndex() {
+        Random random = new Random(9);
+        TreeMap<Long, long[]> days = randomDays(random);
+        DailyBalanceIndex index = DailyBalanceIndex.build(toDailyTotals(days));
+
+        for (int i = 0; i < 200; i++) {
+            long day = FIRST_DAY - 10 + random.nextInt(400);
+            long value = 1 + random.nextInt(100_000);
+            boolean revenue = random.nextBoolean();
+            index = revenue ? index.withDelta(day, value, 0, 1) : index.withDelta(day, 0, value, 1);
+            long[] totals = days.computeIfAbsent(day, key -> new long[3]);
+            totals[revenue ? 0 : 1] += value;
+            totals[2]++;
+        }
+
+        DailyBalanceIndex rebuilt = DailyBalanceIndex.build(toDailyTotals(days));
+        for (long from = FIRST_DAY - 15; from < FIRST_DAY + 400; from += 7) {
+            assertThat(index.range(from, from + 45)).isEqualTo(rebuilt.range(from, from + 45));
+        }
+        assertThat(index.total()).isEqualTo(rebuilt.total());
+    }
+
+    @Test
+    void removalCancelsInsertion() {
+        DailyBalanceIndex index = DailyBalanceIndex.build(List.of(
+                new ActivityDailyTotal(LocalDate.ofEpochDay(FIRST_DAY), Type.REVENUE, 1L, 10_000L)));
+
+        DailyBalanceIndex changed = index.withDelta(FIRST_DAY + 3, 0, 2_500, 1)
+                .withDelta(FIRST_DAY + 3, 0, -2_500, -1);
+
+        assertThat(changed.total()).isEqualTo(index.total());
+        assertThat(changed.range(FIRST_DAY + 1, FIRST_DAY + 10)).isEqualTo(new DailyBalanceIndex.Totals(0, 0, 0));
+        assertThat(changed.total().balance()).isEqualTo(10_000);
+    }
+
+    // dia -> [receita, despesa, quantidade]
+    private static TreeMap<Long, long[]> randomDays(Random random) {
+        TreeMap<Long, long[]> days = new TreeMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            long[] totals = days.computeIfAbsent(FIRST_DAY + random.nextInt(365), day -> new long[3]);
+            totals[random.nextBoolean() ? 0 : 1] += 1 + random.nextInt(1_000_000);
+            totals[2]++;
+        }
+        return days;
+    }
+
+    // Uma linha por dia e tipo, como a consulta do repositório; a quantidade vai na linha de receita
+    private static List<ActivityDailyTotal> toDailyTotals(TreeMap<Long, long[]> days) {
+        List<ActivityDailyTotal> rows = new ArrayList<>();
+        days.forEach((day, totals) -> {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            rows.add(new ActivityDailyTotal(date, Type.REVENUE, totals[2], totals[0]));
+            rows.add(new ActivityDailyTotal(date, Type.EXPENSE, 0L, totals[1]));
+        });
+        return rows;
+    }
+
+    private static DailyBalanceIndex.Totals bruteForce(TreeMap<Long, long[]> days, long from, long to) {
+        long revenue = 0;
+        long expense = 0;
+        int count = 0;
+        for (var entry : days.entrySet()) {
+            if (entry.getKey() >= from && entry.getKey() <= to) {
+                revenue += entry.getValue()[0];
+                expense += entry.getValue()[1];
+                count += (int) entry.getValue()[2];
+            }
+        }
+        return new DailyBalanceIndex.Totals(revenue, expense, count);
+    }
+}
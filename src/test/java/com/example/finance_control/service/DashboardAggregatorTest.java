@@ -0,0 +1,294 @@
+package com.example.finance_control.service;
+
+import com.example.finance_control.domain.activity.Activity;
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.dto.dashboard.DashboardResponseDTO;
+import com.example.finance_control.dto.dashboard.DashboardSection;
+import com.example.finance_control.utils.EpochDates;
+import com.example.finance_control.utils.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o agregador de passada única com as pipelines de stream por seção que o
+ * DashboardService usava antes (portadas para centavos, como no restante do serviço).
+ */
+class DashboardAggregatorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+    private static final LocalDate START = LocalDate.of(2024, 11, 15);
+    private static final LocalDate END = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void singlePassMatchesPerSectionStreams() {
+        List<Activity> activities = randomActivities(new Random(42), 2_000);
+
+        DashboardAggregator aggregator = new DashboardAggregator(START, END, ZONE);
+        aggregator.acceptAll(activities);
+
+        assertSameResponse(aggregator.toResponse(), reference(activities));
+    }
+
+    @Test
+    void filtersMatchPerSectionStreams() {
+        List<Activity> activities = randomActivities(new Random(7), 1_000);
+        Set<Category> categories = Set.of(Category.FOOD, Category.RENT, Category.SALARY);
+
+        DashboardAggregator byCategory = new DashboardAggregator(START, END, ZONE).withFilter(categories, null);
+        byCategory.acceptAll(activities);
+        assertSameResponse(byCategory.toResponse(), reference(activities.stream()
+                .filter(activity -> categories.contains(activity.getCategory()))
+                .collect(Collectors.toList())));
+
+        DashboardAggregator byType = new DashboardAggregator(START, END, ZONE).withFilter(null, Type.EXPENSE);
+        byType.acceptAll(activities);
+        assertSameResponse(byType.toResponse(), reference(activities.stream()
+                .filter(activity -> activity.getType() == Type.EXPENSE)
+                .collect(Collectors.toList())));
+    }
+
+    @Test
+    void fullResponseProjectsToRequestedSections() {
+        DashboardAggregator aggregator = new DashboardAggregator(START, END, ZONE);
+        aggregator.acceptAll(randomActivities(new Random(5), 500));
+        DashboardResponseDTO full = aggregator.toResponse(DashboardSection.ALL);
+
+        for (Set<DashboardSection> sections : List.of(
+                EnumSet.of(DashboardSection.FINANCIAL_SUMMARY),
+                EnumSet.of(DashboardSection.QUICK_STATS),
+                EnumSet.of(DashboardSection.EXPENSES_BY_CATEGORY, DashboardSection.REVENUES_BY_CATEGORY),
+                EnumSet.of(DashboardSection.MONTHLY_EVOLUTION, DashboardSection.FINANCIAL_SUMMARY))) {
+            assertSameResponse(full.only(sections), aggregator.toResponse(sections));
+        }
+    }
+
+    @Test
+    void emptyPeriodReturnsZeroedSections() {
+        DashboardAggregator aggregator = new DashboardAggregator(START, END, ZONE);
+
+        DashboardResponseDTO response = aggregator.toResponse();
+
+        assertSameResponse(response, reference(List.of()));
+        assertThat(response.getQuickStats().getTotalTransactions()).isZero();
+        assertThat(response.getFinancialSummary().getBalanceStatus()).isEqualTo("NEUTRAL");
+    }
+
+    @Test
+    void mergedChunksMatchSinglePass() {
+        List<Activity> activities = randomActivities(new Random(3), 1_500);
+
+        DashboardAggregator single = new DashboardAggregator(START, END, ZONE);
+        single.acceptAll(activities);
+
+        DashboardAggregator merged = new DashboardAggregator(START, END, ZONE);
+        for (int from = 0; from < activities.size(); from += 400) {
+            DashboardAggregator chunk = new DashboardAggregator(START, END, ZONE);
+            chunk.acceptAll(activities.subList(from, Math.min(from + 400, activities.size())));
+            merged.merge(chunk);
+        }
+
+        assertSameResponse(merged.toResponse(), single.toResponse());
+    }
+
+    @Test
+    void monthlyBucketsMatchRowByRow() {
+        List<Activity> activities = randomActivities(new Random(11), 1_000);
+
+        DashboardAggregator rows = new DashboardAggregator(START, END, ZONE);
+        rows.acceptAll(activities);
+
+        // Mesmo agrupamento que o rollup mensal / a consulta agregada entregam
+        Map<List<Object>, long[]> buckets = new HashMap<>();
+        for (Activity activity : activities) {
+            LocalDate date = activity.getDate().atZone(ZONE).toLocalDate();
+            long[] bucket = buckets.computeIfAbsent(
+                    List.of(activity.getType(), activity.getCategory(), EpochDates.epochMonth(date)), key -> new long[2]);
+            bucket[0]++;
+            bucket[1] += activity.getValueCents();
+        }
+        DashboardAggregator aggregated = new DashboardAggregator(START, END, ZONE);
+        buckets.forEach((key, bucket) -> aggregated.acceptBucket(
+                (Type) key.get(0), (Category) key.get(1), (Integer) key.get(2), bucket[0], bucket[1]));
+        aggregated.setDaysWithTransactions(activities.stream()
+                .map(activity -> activity.getDate().atZone(ZONE).toLocalDate())
+                .distinct()
+                .count());
+
+        assertSameResponse(aggregated.toResponse(), rows.toResponse());
+    }
+
+    private static void assertSameResponse(DashboardResponseDTO actual, DashboardResponseDTO expected) {
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    private static List<Activity> randomActivities(Random random, int count) {
+        List<Category> expenseCategories = Arrays.stream(Category.values()).filter(Category::isExpenseCategory).toList();
+        List<Category> revenueCategories = Arrays.stream(Category.values()).filter(Category::isRevenueCategory).toList();
+        long startSecond = START.atStartOfDay(ZONE).toEpochSecond();
+        long endSecond = END.plusDays(1).atStartOfDay(ZONE).toEpochSecond();
+
+        List<Activity> activities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Type type = random.nextInt(4) == 0 ? Type.REVENUE : Type.EXPENSE;
+            List<Category> categories = type == Type.REVENUE ? revenueCategories : expenseCategories;
+            activities.add(Activity.with(
+                    "activity-" + i,
+                    Instant.ofEpochSecond(startSecond + (long) (random.nextDouble() * (endSecond - startSecond))),
+                    "Activity " + i,
+                    1 + random.nextInt(10_000_000),
+                    type,
+                    categories.get(random.nextInt(categories.size())),
+                    null));
+        }
+        return activities;
+    }
+
+    // Pipelines por seção do DashboardService original, com os valores em centavos
+    private static DashboardResponseDTO reference(List<Activity> activities) {
+        return DashboardResponseDTO.builder()
+                .financialSummary(referenceSummary(activities))
+                .expensesByCategory(referenceDistribution(activities, Type.EXPENSE))
+                .revenuesByCategory(referenceDistribution(activities, Type.REVENUE))
+                .monthlyEvolution(referenceEvolution(activities))
+                .quickStats(referenceQuickStats(activities))
+                .build();
+    }
+
+    private static long sum(List<Activity> activities, Type type) {
+        return activities.stream()
+                .filter(activity -> activity.getType() == type)
+                .mapToLong(Activity::getValueCents)
+                .sum();
+    }
+
+    private static DashboardResponseDTO.FinancialSummary referenceSummary(List<Activity> activities) {
+        long totalRevenues = sum(activities, Type.REVENUE);
+        long totalExpenses = sum(activities, Type.EXPENSE);
+        long currentBalance = totalRevenues - totalExpenses;
+
+        return DashboardResponseDTO.FinancialSummary.builder()
+                .totalRevenues(Money.fromCents(totalRevenues))
+                .totalExpenses(Money.fromCents(totalExpenses))
+                .currentBalance(Money.fromCents(currentBalance))
+                .monthlyBalance(Money.fromCents(currentBalance))
+                .balanceStatus(currentBalance > 0 ? "POSITIVE" : currentBalance < 0 ? "NEGATIVE" : "NEUTRAL")
+                .periodStart(START)
+                .periodEnd(END)
+                .build();
+    }
+
+    private static List<DashboardResponseDTO.CategoryDistribution> referenceDistribution(List<Activity> activities, Type type) {
+        List<Activity> filtered = activities.stream()
+                .filter(activity -> activity.getType() == type)
+                .collect(Collectors.toList());
+        if (filtered.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        long totalValue = filtered.stream().mapToLong(Activity::getValueCents).sum();
+        return filtered.stream()
+                .collect(Collectors.groupingBy(Activity::getCategory))
+                .entrySet().stream()
+                .map(entry -> {
+                    long categoryTotal = entry.getValue().stream().mapToLong(Activity::getValueCents).sum();
+                    return DashboardResponseDTO.CategoryDistribution.builder()
+                            .categoryCode(entry.getKey().name())
+                            .categoryName(entry.getKey().getDisplayName())
+                            .emoji(entry.getKey().getEmoji())
+                            .color(entry.getKey().getColor())
+                            .totalValue(Money.fromCents(categoryTotal))
+                            .percentage(((double) categoryTotal / totalValue) * 100)
+                            .transactionCount(entry.getValue().size())
+                            .build();
+                })
+                .sorted((c1, c2) -> c2.getTotalValue().compareTo(c1.getTotalValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<DashboardResponseDTO.MonthlyEvolution> referenceEvolution(List<Activity> activities) {
+        return activities.stream()
+                .collect(Collectors.groupingBy(activity -> {
+                    LocalDate date = activity.getDate().atZone(ZONE).toLocalDate();
+                    return date.getYear() + "-" + String.format("%02d", date.getMonthValue());
+                }))
+                .entrySet().stream()
+                .map(entry -> {
+                    String[] yearMonth = entry.getKey().split("-");
+                    int year = Integer.parseInt(yearMonth[0]);
+                    int month = Integer.parseInt(yearMonth[1]);
+                    long revenues = sum(entry.getValue(), Type.REVENUE);
+                    long expenses = sum(entry.getValue(), Type.EXPENSE);
+                    return DashboardResponseDTO.MonthlyEvolution.builder()
+                            .month(String.format("%02d", month))
+                            .year(year)
+                            .revenues(Money.fromCents(revenues))
+                            .expenses(Money.fromCents(expenses))
+                            .balance(Money.fromCents(revenues - expenses))
+                            .periodLabel(String.format("%02d/%d", month, year))
+                            .build();
+                })
+                .sorted((m1, m2) -> {
+                    int yearCompare = m1.getYear().compareTo(m2.getYear());
+                    return yearCompare != 0 ? yearCompare : m1.getMonth().compareTo(m2.getMonth());
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static DashboardResponseDTO.QuickStats referenceQuickStats(List<Activity> activities) {
+        if (activities.isEmpty()) {
+            return DashboardResponseDTO.QuickStats.builder()
+                    .totalTransactions(0)
+                    .averageExpense(Money.fromCents(0))
+                    .averageRevenue(Money.fromCents(0))
+                    .topExpenseCategory("")
+                    .topRevenueCategory("")
+                    .daysWithTransactions(0)
+                    .dailyAverageSpending(Money.fromCents(0))
+                    .build();
+        }
+
+        long expenseCount = activities.stream().filter(activity -> activity.getType() == Type.EXPENSE).count();
+        long revenueCount = activities.size() - expenseCount;
+        long daysBetween = ChronoUnit.DAYS.between(START, END) + 1;
+
+        return DashboardResponseDTO.QuickStats.builder()
+                .totalTransactions(activities.size())
+                .averageExpense(Money.divide(sum(activities, Type.EXPENSE), expenseCount))
+                .averageRevenue(Money.divide(sum(activities, Type.REVENUE), revenueCount))
+                .topExpenseCategory(referenceTopCategory(activities, Type.EXPENSE))
+                .topRevenueCategory(referenceTopCategory(activities, Type.REVENUE))
+                .daysWithTransactions((int) activities.stream()
+                        .map(activity -> activity.getDate().atZone(ZONE).toLocalDate())
+                        .distinct()
+                        .count())
+                .dailyAverageSpending(Money.divide(sum(activities, Type.EXPENSE), daysBetween))
+                .build();
+    }
+
+    private static String referenceTopCategory(List<Activity> activities, Type type) {
+        return activities.stream()
+                .filter(activity -> activity.getType() == type)
+                .collect(Collectors.groupingBy(Activity::getCategory, Collectors.summingLong(Activity::getValueCents)))
+                .entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(entry -> entry.getKey().getDisplayName())
+                .orElse("");
+    }
+}
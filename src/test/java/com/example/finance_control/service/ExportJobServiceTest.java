@@ -0,0 +1,36 @@
+package com.example.finance_control.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportJobServiceTest {
+
+    private static final String ID = UUID.randomUUID().toString();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recognizesOnlyGeneratedExportFiles() throws IOException {
+        assertThat(ExportJobService.isExportFile(file("activities-" + ID + ".csv"))).isTrue();
+        assertThat(ExportJobService.isExportFile(file("activities-" + ID + ".csv.gz"))).isTrue();
+        assertThat(ExportJobService.isExportFile(file("activities-" + ID + ".xlsx.part"))).isTrue();
+
+        assertThat(ExportJobService.isExportFile(file("activities-backup.csv"))).isFalse();
+        assertThat(ExportJobService.isExportFile(file("activities-" + ID + ".txt"))).isFalse();
+        assertThat(ExportJobService.isExportFile(file("report-" + ID + ".pdf"))).isFalse();
+        assertThat(ExportJobService.isExportFile(file(ID + ".part"))).isFalse();
+        assertThat(ExportJobService.isExportFile(Files.createDirectory(directory.resolve("activities-" + UUID.randomUUID() + ".pdf")))).isFalse();
+    }
+
+    private Path file(String name) throws IOException {
+        return Files.createFile(directory.resolve(name));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.finance_control.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Os conversores "civil from days" substituem chamadas ao java.time; cada um é comparado
+ * com o resultado do JDK em instantes aleatórios e nas bordas de mês, ano e horário de verão.
+ */
+class EpochDatesTest {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final ZoneId[] ZONES = {
+            ZoneId.of("America/Sao_Paulo"), ZoneId.of("UTC"), ZoneId.of("Asia/Kolkata"), ZoneId.of("Pacific/Kiritimati")
+    };
+
+    @Test
+    void appendDateTimeMatchesDateTimeFormatter() {
+        Random random = new Random(20);
+        // 1900-01-01 a 2100-12-31
+        long from = LocalDate.of(1900, 1, 1).toEpochDay() * 86_400;
+        long to = LocalDate.of(2100, 12, 31).toEpochDay() * 86_400;
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            Instant instant = Instant.ofEpochSecond(from + (long) (random.nextDouble() * (to - from)));
+            ZoneId zone = ZONES[i % ZONES.length];
+            assertFormatted(builder, instant, zone);
+        }
+    }
+
+    @Test
+    void appendDateTimeHandlesBoundaries() {
+        StringBuilder builder = new StringBuilder();
+        String[] instants = {
+                "1969-12-31T23:59:59Z", "1970-01-01T00:00:00Z", "2000-02-29T12:00:00Z", "2024-02-29T23:59:00Z",
+                "2024-12-31T23:59:59Z", "2025-01-01T00:00:00Z", "2100-03-01T00:00:00Z",
+                // Início e fim do horário de verão em São Paulo (2018/2019)
+                "2018-11-04T02:59:00Z", "2018-11-04T03:00:00Z", "2019-02-17T01:59:00Z", "2019-02-17T02:00:00Z"
+        };
+        for (String text : instants) {
+            for (ZoneId zone : ZONES) {
+                assertFormatted(builder, Instant.parse(text), zone);
+            }
+        }
+    }
+
+    @Test
+    void epochDayAndMonthMatchLocalDate() {
+        Random random = new Random(21);
+        for (int i = 0; i < 50_000; i++) {
+            Instant instant = Instant.ofEpochSecond(random.nextLong(-2_208_988_800L, 4_102_444_800L));
+            ZoneId zone = ZONES[i % ZONES.length];
+            ZoneRules rules = zone.getRules();
+            LocalDate date = instant.atZone(zone).toLocalDate();
+
+            long epochDay = EpochDates.epochDay(instant, rules);
+            assertThat(epochDay).isEqualTo(date.toEpochDay());
+            assertThat(EpochDates.epochMonth(epochDay)).isEqualTo(EpochDates.epochMonth(date));
+            assertThat(EpochDates.yearOf(EpochDates.epochMonth(date))).isEqualTo(date.getYear());
+            assertThat(EpochDates.monthOf(EpochDates.epochMonth(date))).isEqualTo(date.getMonthValue());
+        }
+    }
+
+    @Test
+    void twoDigitsPadsSingleDigits() {
+        assertThat(EpochDates.twoDigits(0)).isEqualTo("00");
+        assertThat(EpochDates.twoDigits(7)).isEqualTo("07");
+        assertThat(EpochDates.twoDigits(12)).isEqualTo("12");
+    }
+
+    private static void assertFormatted(StringBuilder builder, Instant instant, ZoneId zone) {
+        builder.setLength(0);
+        EpochDates.appendDateTime(builder, instant, zone.getRules());
+        assertThat(builder.toString())
+                .as("%s in %s", instant, zone)
+                .isEqualTo(FORMATTER.format(instant.atZone(zone)));
+    }
+}
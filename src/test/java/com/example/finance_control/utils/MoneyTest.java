@@ -0,0 +1,55 @@
+package com.example.finance_control.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void convertsBetweenDecimalAndCents() {
+        assertThat(Money.toCents(new BigDecimal("1234.56"))).isEqualTo(123_456);
+        assertThat(Money.toCents(new BigDecimal("-0.01"))).isEqualTo(-1);
+        assertThat(Money.toCents(new BigDecimal("7"))).isEqualTo(700);
+        assertThat(Money.fromCents(123_456)).isEqualTo(new BigDecimal("1234.56"));
+        assertThat(Money.fromCents(-5)).isEqualTo(new BigDecimal("-0.05"));
+    }
+
+    @Test
+    void toCentsRoundsHalfEven() {
+        assertThat(Money.toCents(new BigDecimal("0.125"))).isEqualTo(12);
+        assertThat(Money.toCents(new BigDecimal("0.135"))).isEqualTo(14);
+    }
+
+    @Test
+    void toCentsRejectsOverflow() {
+        assertThatThrownBy(() -> Money.toCents(new BigDecimal("1e20"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void divideRoundsToCentsAndToleratesZeroDivisor() {
+        assertThat(Money.divide(1_000, 3)).isEqualTo(new BigDecimal("3.33"));
+        assertThat(Money.divide(1_000, 0)).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void appendCentsWritesFixedTwoDecimals() {
+        StringBuilder builder = new StringBuilder();
+        Money.appendCents(builder, 123_405, ',');
+        builder.append('|');
+        Money.appendCents(builder, -7, ',');
+        builder.append('|');
+        Money.appendCents(builder, 0, '.');
+
+        assertThat(builder.toString()).isEqualTo("1234,05|-0,07|0.00");
+    }
+
+    @Test
+    void percentageOfZeroTotalIsZero() {
+        assertThat(Money.percentage(250, 1_000)).isEqualTo(25.0);
+        assertThat(Money.percentage(5, 0)).isZero();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.finance_control.utils;
+
+import com.example.finance_control.domain.category.Category;
+import com.example.finance_control.domain.type.Type;
+import com.example.finance_control.exceptions.DomainException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatementCsvReaderTest {
+
+    // Layout brasileiro: ';' entre campos e vírgula decimal
+    private static final String BR_HEADER = "Data;Descrição;Valor\n";
+    // Layout com ',' entre campos e ponto decimal
+    private static final String EN_HEADER = "Date,Description,Amount\n";
+
+    @Test
+    void parsesEveryDocumentedAmountFormat() throws IOException {
+        assertThat(brAmount("1234.56")).isEqualTo(123_456);
+        assertThat(brAmount("1234,56")).isEqualTo(123_456);
+        assertThat(brAmount("1.234,56")).isEqualTo(123_456);
+        assertThat(brAmount("1,234.56")).isEqualTo(123_456);
+        assertThat(brAmount("1.234.567")).isEqualTo(123_456_700);
+        assertThat(brAmount("R$ -12,50")).isEqualTo(-1_250);
+        assertThat(brAmount("(12,50)")).isEqualTo(-1_250);
+        assertThat(brAmount("R$ 1.234,5")).isEqualTo(123_450);
+        assertThat(brAmount("+7")).isEqualTo(700);
+    }
+
+    @Test
+    void singleSeparatorWithThreeDigitsIsThousandsUnlessItIsTheLayoutDecimal() throws IOException {
+        assertThat(enAmount("\"1,234\"")).isEqualTo(123_400);
+        assertThat(enAmount("\"1,234,567.89\"")).isEqualTo(123_456_789);
+        assertThat(brAmount("1.234")).isEqualTo(123_400);
+
+        assertThatThrownBy(() -> brAmount("1,234"))
+                .isInstanceOf(DomainException.class)
+                .hasMessageContaining("more than 2 decimal places");
+        assertThatThrownBy(() -> enAmount("1.234"))
+                .isInstanceOf(DomainException.class)
+                .hasMessageContaining("more than 2 decimal places");
+    }
+
+    @Test
+    void rejectsAmountsInsteadOfRounding() {
+        assertThatThrownBy(() -> brAmount("0,005")).isInstanceOf(DomainException.class);
+        assertThatThrownBy(() -> enAmount("\"0,005\"")).isInstanceOf(DomainException.class);
+        assertThatThrownBy(() -> enAmount("12.345")).isInstanceOf(DomainException.class);
+        assertThatThrownBy(() -> brAmount("1.234,567")).isInstanceOf(DomainException.class);
+        assertThatThrownBy(() -> brAmount("12.34.56")).isInstanceOf(DomainException.class);
+        assertThatThrownBy(() -> brAmount("1e5")).isInstanceOf(DomainException.class);
+        assertThatThrownBy(() -> brAmount("R$")).isInstanceOf(DomainException.class);
+    }
+
+    @Test
+    void signDecidesTypeWithoutTypeColumn() throws IOException {
+        StatementCsvReader reader = reader(BR_HEADER + "10/03/2025;Mercado;-45,90\n10/03/2025;Salário;5.000,00\n");
+
+        StatementCsvReader.Line expense = reader.next();
+        assertThat(expense.type()).isEqualTo(Type.EXPENSE);
+        assertThat(expense.category()).isEqualTo(Category.OTHERS);
+        assertThat(expense.valueCents()).isEqualTo(4_590);
+
+        StatementCsvReader.Line revenue = reader.next();
+        assertThat(revenue.type()).isEqualTo(Type.REVENUE);
+        assertThat(revenue.category()).isEqualTo(Category.OTHER_INCOME);
+        assertThat(revenue.valueCents()).isEqualTo(500_000);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void readsExportLayoutAndSkipsBalanceLines() throws IOException {
+        StatementCsvReader reader = reader("\uFEFFDescrição;Tipo;Categoria;Quantia;Data e Hora\n"
+                + "\"Almoço; centro\";EXPENSE;Alimentação;32,50;10/03/2025 12:30\n"
+                + "\n"
+                + "Saldo Final;;;-32,50;\n");
+
+        StatementCsvReader.Line line = reader.next();
+        assertThat(line.description()).isEqualTo("Almoço; centro");
+        assertThat(line.type()).isEqualTo(Type.EXPENSE);
+        assertThat(line.category()).isEqualTo(Category.FOOD);
+        assertThat(line.valueCents()).isEqualTo(3_250);
+        assertThat(line.date()).isEqualTo(FormatDateTime.parseDate("10/03/2025 12:30"));
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void cardStatementTreatsPositiveAmountsAsExpenses() throws IOException {
+        StatementCsvReader reader = reader("date,title,amount\n2025-03-10,Padaria,12.40\n2025-03-11,Estorno,-5.00\n");
+
+        assertThat(reader.next().type()).isEqualTo(Type.EXPENSE);
+        assertThat(reader.next().type()).isEqualTo(Type.REVENUE);
+    }
+
+    @Test
+    void rejectsUnknownHeader() {
+        assertThatThrownBy(() -> reader("foo;bar\n1;2\n")).isInstanceOf(DomainException.class);
+    }
+
+    private static long brAmount(String amount) throws IOException {
+        return signedCents(reader(BR_HEADER + "10/03/2025;Lançamento;" + amount + "\n").next());
+    }
+
+    private static long enAmount(String amount) throws IOException {
+        return signedCents(reader(EN_HEADER + "2025-03-10,Entry," + amount + "\n").next());
+    }
+
+    private static long signedCents(StatementCsvReader.Line line) {
+        return line.type() == Type.EXPENSE ? -line.valueCents() : line.valueCents();
+    }
+
+    private static StatementCsvReader reader(String csv) throws IOException {
+        return new StatementCsvReader(new StringReader(csv));
+    }
+}